@@ -0,0 +1,99 @@
+package com.booking.unitmanager.dao;
+
+import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.entity.BookingEntity;
+import com.booking.unitmanager.model.entity.PaymentEntity;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the unit search criteria query, with and without the date anti-join, and turning it into
+ * an executable query. Hibernate is bootstrapped without a database, so only query construction and
+ * translation are measured, never a round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UnitSearchCriteriaBenchmark {
+
+    private final UnitFilter attributeFilter = UnitFilter.builder()
+            .numberOfRooms(2)
+            .accommodationType(AccommodationType.FLAT)
+            .minCost(new BigDecimal("50"))
+            .maxCost(new BigDecimal("500"))
+            .build();
+
+    private final UnitFilter dateFilter = UnitFilter.builder()
+            .numberOfRooms(2)
+            .accommodationType(AccommodationType.FLAT)
+            .startDate(LocalDate.of(2030, 1, 1))
+            .endDate(LocalDate.of(2030, 1, 8))
+            .build();
+
+    private SessionFactory sessionFactory;
+    private Session session;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(UnitEntity.class)
+                .addAnnotatedClass(BookingEntity.class)
+                .addAnnotatedClass(UserEntity.class)
+                .addAnnotatedClass(PaymentEntity.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<UnitEntity> buildAttributeQuery() {
+        return buildQuery(attributeFilter);
+    }
+
+    @Benchmark
+    public CriteriaQuery<UnitEntity> buildDateQuery() {
+        return buildQuery(dateFilter);
+    }
+
+    @Benchmark
+    public Query<UnitEntity> createDateQuery() {
+        return session.createQuery(buildQuery(dateFilter));
+    }
+
+    private CriteriaQuery<UnitEntity> buildQuery(UnitFilter unitFilter) {
+        CriteriaBuilder cb = session.getCriteriaBuilder();
+        CriteriaQuery<UnitEntity> query = cb.createQuery(UnitEntity.class);
+        Root<UnitEntity> unitRoot = query.from(UnitEntity.class);
+        List<Predicate> predicates = UnitRepositoryCustomImpl.buildPredicates(cb, query, unitRoot, unitFilter);
+        return query.select(unitRoot).where(cb.and(predicates.toArray(new Predicate[0])));
+    }
+}
@@ -0,0 +1,73 @@
+package com.booking.unitmanager.mapper;
+
+import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.UnitReadDTO;
+import com.booking.unitmanager.model.entity.BookingEntity;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.BookingStatus;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to read DTO mapping through the generated MapStruct mappers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    private final UnitMapper unitMapper = Mappers.getMapper(UnitMapper.class);
+    private final BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+
+    private UnitEntity unit;
+    private BookingEntity booking;
+
+    @Setup
+    public void setUp() {
+        unit = new UnitEntity();
+        unit.setId(1L);
+        unit.setNumberOfRooms(2);
+        unit.setAccommodationType(AccommodationType.FLAT);
+        unit.setFloor(3);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("115.00"));
+        unit.setDescription("Benchmark unit");
+
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+
+        Instant startDate = Instant.parse("2030-01-01T00:00:00Z");
+        booking = new BookingEntity();
+        booking.setId(1L);
+        booking.setUnit(unit);
+        booking.setUser(user);
+        booking.setStartDate(startDate);
+        booking.setEndDate(startDate.plus(2, ChronoUnit.DAYS));
+        booking.setTotalPrice(new BigDecimal("230.00"));
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setPaymentDeadline(startDate.minus(15, ChronoUnit.MINUTES));
+    }
+
+    @Benchmark
+    public UnitReadDTO unitToReadDTO() {
+        return unitMapper.toReadDTO(unit);
+    }
+
+    @Benchmark
+    public BookingReadDTO bookingToReadDTO() {
+        return bookingMapper.toReadDTO(booking);
+    }
+}
@@ -0,0 +1,62 @@
+package com.booking.unitmanager.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-unit availability check of the in-memory index for units with {@code bookings} consecutive
+ * two-night stays, probing a free gap in the middle and a period that hits an existing booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AvailabilityCheckBenchmark {
+
+    private static final long DAY = 86_400;
+
+    @Param({"10", "100", "1000"})
+    private int bookings;
+
+    private UnitIntervals intervals;
+    private long freeStart;
+    private long bookedStart;
+
+    @Setup
+    public void setUp() {
+        long[] ids = new long[bookings];
+        long[] starts = new long[bookings];
+        long[] ends = new long[bookings];
+        for (int i = 0; i < bookings; i++) {
+            // Every third day is left free between stays
+            ids[i] = i;
+            starts[i] = i * 3 * DAY;
+            ends[i] = starts[i] + 2 * DAY;
+        }
+        intervals = UnitIntervals.of(ids, starts, ends);
+        freeStart = (bookings / 2) * 3 * DAY + 2 * DAY;
+        bookedStart = (bookings / 2) * 3 * DAY;
+    }
+
+    @Benchmark
+    public boolean freePeriod() {
+        return intervals.overlaps(freeStart, freeStart + DAY);
+    }
+
+    @Benchmark
+    public boolean bookedPeriod() {
+        return intervals.overlaps(bookedStart, bookedStart + DAY);
+    }
+
+    @Benchmark
+    public UnitIntervals addBooking() {
+        return intervals.with(Long.MAX_VALUE, freeStart, freeStart + DAY);
+    }
+}
@@ -0,0 +1,67 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.config.RedisConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Available units counter updates against a Redis Testcontainer: the conditional Lua adjustment
+ * used by {@link UnitCacheService} next to a plain INCRBY as the round-trip baseline.
+ * Requires Docker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AvailableUnitsCounterBenchmark {
+
+    private static final String AVAILABLE_UNITS_KEY = "available_units";
+
+    private GenericContainer<?> redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Long> redisTemplate;
+    private UnitCacheService unitCacheService;
+
+    @Setup
+    public void setUp() {
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        // The counter is seeded, so the repository is never consulted
+        redisTemplate.opsForValue().set(AVAILABLE_UNITS_KEY, 1_000_000L);
+        unitCacheService = new UnitCacheService(redisTemplate, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Benchmark
+    public void adjustIfPresent() {
+        unitCacheService.adjustAvailableUnits(1);
+    }
+
+    @Benchmark
+    public Long plainIncrement() {
+        return redisTemplate.opsForValue().increment(AVAILABLE_UNITS_KEY, 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit total cost (base cost with system markup) and booking total price (nights times total cost).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceCalculationBenchmark {
+
+    private final BigDecimal systemMarkup = new BigDecimal("1.15");
+    private final BigDecimal baseCost = new BigDecimal("123.45");
+
+    private BookingCreateDTO booking;
+    private UnitEntity unit;
+
+    @Setup
+    public void setUp() {
+        unit = new UnitEntity();
+        unit.setBaseCost(baseCost);
+        unit.setTotalCost(UnitServiceImpl.calculateTotalCost(baseCost, systemMarkup));
+
+        Instant startDate = Instant.parse("2030-01-01T00:00:00Z");
+        booking = new BookingCreateDTO();
+        booking.setStartDate(startDate);
+        booking.setEndDate(startDate.plus(7, ChronoUnit.DAYS));
+    }
+
+    @Benchmark
+    public BigDecimal totalCost() {
+        return UnitServiceImpl.calculateTotalCost(baseCost, systemMarkup);
+    }
+
+    @Benchmark
+    public BigDecimal totalPrice() {
+        return BookingServiceImpl.calculateTotalPrice(booking, unit);
+    }
+}
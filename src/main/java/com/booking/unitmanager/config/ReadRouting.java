@@ -0,0 +1,40 @@
+package com.booking.unitmanager.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread hint that sends the reads of a read-only transaction to the primary instead of a replica.
+ * <p>
+ * The physical connection is only fetched on the first statement, so the hint takes effect for a
+ * read-only transaction that runs its first statement inside {@link #onPrimary}, whether the
+ * transaction started there or just before. A transaction that already holds a connection keeps it.
+ * Without replicas configured the hint has no effect.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUESTED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Run {@code read} with its connections taken from the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_REQUESTED.get();
+        PRIMARY_REQUESTED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUESTED.remove();
+            } else {
+                PRIMARY_REQUESTED.set(previous);
+            }
+        }
+    }
+
+    static boolean primaryRequested() {
+        return Boolean.TRUE.equals(PRIMARY_REQUESTED.get());
+    }
+}
@@ -0,0 +1,169 @@
+package com.booking.unitmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions, spread round-robin over the streaming replicas that are
+ * reachable and no more than {@code maxLag} behind the primary.
+ * <p>
+ * Lag is sampled by {@link #checkReplicas()}. A replica counts as unusable until its first check
+ * passes, and again as soon as a check finds it too far behind or it refuses a connection.
+ * When no replica is usable the primary serves the read, and so it does for reads that asked for
+ * it through {@link ReadRouting#onPrimary}.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    /**
+     * Zero while the replica has replayed everything it received (an idle primary sends nothing,
+     * so the last replay timestamp alone would report a growing lag); otherwise the age of the last
+     * replayed transaction, or NULL before the replica has replayed any.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+            END
+            """;
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private Counter primaryFallbacks;
+
+    public ReplicaDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replay lag of the replica at the last check, NaN when it was unreachable")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.name())
+                    .register(registry);
+        }
+        primaryFallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only connections served by the primary because no replica was usable")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        if (ReadRouting.primaryRequested()) {
+            return source.open(primary);
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.usable) {
+                continue;
+            }
+            try {
+                return source.open(replica.pool);
+            } catch (SQLFeatureNotSupportedException ex) {
+                // e.g. per-call credentials, which the pools reject; says nothing about the replica
+                throw ex;
+            } catch (SQLException ex) {
+                replica.usable = false;
+                log.warn("Replica {} refused a connection, skipping it until the next check: {}",
+                        replica.name(), ex.getMessage());
+            }
+        }
+        if (primaryFallbacks != null) {
+            primaryFallbacks.increment();
+        }
+        return source.open(primary);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check.millis:1000}")
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void check(Replica replica) {
+        double lagSeconds;
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            lagSeconds = resultSet.getDouble(1);
+            if (resultSet.wasNull()) {
+                lagSeconds = Double.POSITIVE_INFINITY;
+            }
+        } catch (SQLException ex) {
+            log.debug("Lag check of replica {} failed: {}", replica.name(), ex.getMessage());
+            lagSeconds = Double.NaN;
+        }
+
+        boolean usable = lagSeconds <= maxLagSeconds;
+        if (usable != replica.usable) {
+            if (usable) {
+                log.info("Replica {} is {}s behind, routing reads to it", replica.name(), lagSeconds);
+            } else {
+                log.warn("Replica {} is {}s behind (max {}s), reading from other replicas or the primary",
+                        replica.name(), lagSeconds, maxLagSeconds);
+            }
+        }
+        replica.lagSeconds = lagSeconds;
+        replica.usable = usable;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile double lagSeconds = Double.NaN;
+        private volatile boolean usable;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private String name() {
+            return pool.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.booking.unitmanager.controller;
+
+import com.booking.unitmanager.service.AvailabilityFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/units")
+@RequiredArgsConstructor
+public class AvailabilityFeedController {
+
+    private final AvailabilityFeedService availabilityFeedService;
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestParam(required = false) Set<Long> unitIds,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        return availabilityFeedService.subscribe(unitIds == null ? Set.of() : unitIds, lastEventId);
+    }
+}
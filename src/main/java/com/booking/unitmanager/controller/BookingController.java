@@ -1,15 +1,31 @@
 package com.booking.unitmanager.controller;
 
 import com.booking.unitmanager.service.BookingService;
+import com.booking.unitmanager.model.dto.BookingBatchCreateDTO;
+import com.booking.unitmanager.model.dto.BookingBatchResult;
 import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingExportFilter;
 import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.model.enums.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @RestController
@@ -18,12 +34,21 @@ public class BookingController {
 
     private final BookingService bookingService;
 
+    @Value("${booking.export.timeout.minutes:30}")
+    private long exportTimeoutMinutes;
+
     @PostMapping
     public ResponseEntity<BookingReadDTO> createBooking(@Valid @RequestBody BookingCreateDTO createDTO) {
         BookingReadDTO booking = bookingService.createBooking(createDTO);
         return new ResponseEntity<>(booking, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BookingBatchResult> createBookings(@Valid @RequestBody BookingBatchCreateDTO batchDTO) {
+        BookingBatchResult result = bookingService.createBookings(batchDTO.getBookings(), batchDTO.getMode());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingReadDTO> getBookingById(@PathVariable Long id) {
         BookingReadDTO booking = bookingService.getBooking(id);
@@ -45,6 +70,16 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public ResponseEntity<CursorSlice<BookingReadDTO>> findByUserIdAfter(
+            @PathVariable Long userId,
+            @RequestParam String cursor,
+            Pageable pageable
+    ) {
+        CursorSlice<BookingReadDTO> bookings = bookingService.findByUserId(userId, cursor, pageable);
+        return ResponseEntity.ok(bookings);
+    }
+
     @GetMapping("/unit/{unitId}")
     public ResponseEntity<Page<BookingReadDTO>> findByUnitId(
             @PathVariable Long unitId,
@@ -53,4 +88,63 @@ public class BookingController {
         Page<BookingReadDTO> bookings = bookingService.findByUnitId(unitId, pageable);
         return ResponseEntity.ok(bookings);
     }
+
+    @GetMapping(value = "/unit/{unitId}", params = "cursor")
+    public ResponseEntity<CursorSlice<BookingReadDTO>> findByUnitIdAfter(
+            @PathVariable Long unitId,
+            @RequestParam String cursor,
+            Pageable pageable
+    ) {
+        CursorSlice<BookingReadDTO> bookings = bookingService.findByUnitId(unitId, cursor, pageable);
+        return ResponseEntity.ok(bookings);
+    }
+
+    @GetMapping("/user/{userId}/export")
+    public WebAsyncTask<Void> exportByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Set<BookingStatus> status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) {
+        BookingExportFilter filter = BookingExportFilter.builder()
+                .userId(userId).from(from).to(to).statuses(status)
+                .build();
+        return export(filter, format, "bookings-user-" + userId, response);
+    }
+
+    @GetMapping("/unit/{unitId}/export")
+    public WebAsyncTask<Void> exportByUnitId(
+            @PathVariable Long unitId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Set<BookingStatus> status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) {
+        BookingExportFilter filter = BookingExportFilter.builder()
+                .unitId(unitId).from(from).to(to).statuses(status)
+                .build();
+        return export(filter, format, "bookings-unit-" + unitId, response);
+    }
+
+    /**
+     * Large exports outlive the default async request timeout, so they run as a task with their
+     * own {@code booking.export.timeout.minutes} rather than raising it for every async request,
+     * the availability feed included. The task always runs the body, which returns its export permit.
+     */
+    private WebAsyncTask<Void> export(BookingExportFilter filter, ExportFormat format, String name,
+                                      HttpServletResponse response) {
+        StreamingResponseBody body = bookingService.exportBookings(filter, format);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build();
+        return new WebAsyncTask<>(Duration.ofMinutes(exportTimeoutMinutes).toMillis(), () -> {
+            response.setContentType(format.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+            body.writeTo(response.getOutputStream());
+            return null;
+        });
+    }
 }
@@ -1,23 +1,34 @@
 package com.booking.unitmanager.controller;
 
 import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.CountMode;
 import com.booking.unitmanager.service.UnitService;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.UnitAvailabilityDTO;
+import com.booking.unitmanager.model.dto.UnitAvailabilityQueryDTO;
+import com.booking.unitmanager.model.dto.UnitCalendarDTO;
 import com.booking.unitmanager.model.dto.UnitCreateDTO;
 import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.dto.UnitImportResult;
 import com.booking.unitmanager.model.dto.UnitReadDTO;
 import com.booking.unitmanager.model.dto.UnitUpdateDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -33,6 +44,12 @@ public class UnitController {
         return new ResponseEntity<>(unit, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<UnitImportResult> importUnits(InputStream body) {
+        UnitImportResult result = unitService.importUnits(body);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UnitReadDTO> getUnitById(@PathVariable Long id) {
         UnitReadDTO unit = unitService.getUnit(id);
@@ -55,7 +72,7 @@ public class UnitController {
     }
 
     @GetMapping
-    public ResponseEntity<Page<UnitReadDTO>> findByCriteria(
+    public ResponseEntity<Slice<UnitReadDTO>> findByCriteria(
             @RequestParam(required = false) Integer numberOfRooms,
             @RequestParam(required = false) AccommodationType accommodationType,
             @RequestParam(required = false) Integer floor,
@@ -63,22 +80,32 @@ public class UnitController {
             @RequestParam(required = false) BigDecimal maxCost,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "EXACT") CountMode count,
             Pageable pageable
     ) {
-        UnitFilter criteria = UnitFilter.builder()
-                .numberOfRooms(numberOfRooms)
-                .accommodationType(accommodationType)
-                .floor(floor)
-                .minCost(minCost)
-                .maxCost(maxCost)
-                .startDate(startDate)
-                .endDate(endDate)
-                .build();
-        Page<UnitReadDTO> units = unitService.findByCriteria(criteria, pageable);
+        UnitFilter criteria = toFilter(numberOfRooms, accommodationType, floor, minCost, maxCost, startDate, endDate);
+        Slice<UnitReadDTO> units = unitService.findByCriteria(criteria, pageable, count);
         
         return ResponseEntity.ok(units);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorSlice<UnitReadDTO>> findByCriteriaAfter(
+            @RequestParam(required = false) Integer numberOfRooms,
+            @RequestParam(required = false) AccommodationType accommodationType,
+            @RequestParam(required = false) Integer floor,
+            @RequestParam(required = false) BigDecimal minCost,
+            @RequestParam(required = false) BigDecimal maxCost,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam String cursor,
+            Pageable pageable
+    ) {
+        UnitFilter criteria = toFilter(numberOfRooms, accommodationType, floor, minCost, maxCost, startDate, endDate);
+        CursorSlice<UnitReadDTO> units = unitService.findByCriteria(criteria, cursor, pageable);
+        return ResponseEntity.ok(units);
+    }
+
     @GetMapping("/{id}/availability")
     public ResponseEntity<Boolean> checkAvailability(
             @PathVariable Long id,
@@ -89,9 +116,61 @@ public class UnitController {
         return ResponseEntity.ok(isAvailable);
     }
 
+    @PostMapping("/availability")
+    public ResponseEntity<UnitAvailabilityDTO> findAvailableUnits(@Valid @RequestBody UnitAvailabilityQueryDTO query) {
+        List<Long> availableUnitIds = unitService.findAvailableUnitIds(
+                query.getUnitIds(), query.getStartDate(), query.getEndDate());
+        return ResponseEntity.ok(new UnitAvailabilityDTO(query.getStartDate(), query.getEndDate(), availableUnitIds));
+    }
+
+    /**
+     * The ETag is the bitmap itself, so a client revalidating an unchanged calendar gets 304.
+     */
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<UnitCalendarDTO> getCalendar(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        UnitCalendarDTO calendar = unitService.getUnitCalendar(id, from, to);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(calendar.occupiedDays())
+                .body(calendar);
+    }
+
     @GetMapping("/available/count")
-    public ResponseEntity<Map<String, Long>> getAvailableUnitsCount() {
-        Long count = unitService.getAvailableUnitsCount();
-        return ResponseEntity.ok(Map.of("availableUnits", count));
+    public ResponseEntity<Map<String, Long>> getAvailableUnitsCount(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") int days
+    ) {
+        if (date == null) {
+            Long count = unitService.getAvailableUnitsCount();
+            return ResponseEntity.ok(Map.of("availableUnits", count));
+        }
+        Map<String, Long> countsByDay = new LinkedHashMap<>();
+        unitService.getAvailableUnitsCountByDay(date, days)
+                .forEach((day, count) -> countsByDay.put(day.toString(), count));
+        return ResponseEntity.ok(countsByDay);
+    }
+
+    private static UnitFilter toFilter(
+            Integer numberOfRooms,
+            AccommodationType accommodationType,
+            Integer floor,
+            BigDecimal minCost,
+            BigDecimal maxCost,
+            LocalDate startDate,
+            LocalDate endDate
+    ) {
+        return UnitFilter.builder()
+                .numberOfRooms(numberOfRooms)
+                .accommodationType(accommodationType)
+                .floor(floor)
+                .minCost(minCost)
+                .maxCost(maxCost)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
     }
 }
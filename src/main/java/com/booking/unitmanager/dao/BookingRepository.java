@@ -1,24 +1,39 @@
 package com.booking.unitmanager.dao;
 
+import com.booking.unitmanager.model.dto.BookingReadDTO;
 import com.booking.unitmanager.model.entity.BookingEntity;
+import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.model.projection.AdmittedBooking;
+import com.booking.unitmanager.model.projection.BookingDeadline;
+import com.booking.unitmanager.model.projection.BookingInterval;
+import com.booking.unitmanager.model.projection.ExpiredBooking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
+public interface BookingRepository extends JpaRepository<BookingEntity, Long>, BookingRepositoryCustom {
 
-    @Query("SELECT b FROM BookingEntity b WHERE b.user.id = :userId")
-    Page<BookingEntity> findByUserId(@Param("userId") Long userId, Pageable pageable);
+    String READ_DTO = "new com.booking.unitmanager.model.dto.BookingReadDTO(b.id, b.unit.id, b.user.id, " +
+            "b.startDate, b.endDate, b.totalPrice, b.status, b.createdAt, b.updatedAt, b.paymentDeadline)";
 
-    @Query("SELECT b FROM BookingEntity b WHERE b.unit.id = :unitId")
-    Page<BookingEntity> findByUnitId(@Param("unitId") Long unitId, Pageable pageable);
+    @Query(value = "SELECT " + READ_DTO + " FROM BookingEntity b WHERE b.user.id = :userId",
+            countQuery = "SELECT count(b) FROM BookingEntity b WHERE b.user.id = :userId")
+    Page<BookingReadDTO> findByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "SELECT " + READ_DTO + " FROM BookingEntity b WHERE b.unit.id = :unitId",
+            countQuery = "SELECT count(b) FROM BookingEntity b WHERE b.unit.id = :unitId")
+    Page<BookingReadDTO> findByUnitId(@Param("unitId") Long unitId, Pageable pageable);
 
     @Query("SELECT b FROM BookingEntity b WHERE b.unit.id = :unitId " +
             "AND b.status IN ('PENDING', 'CONFIRMED', 'PAID') " +
@@ -28,7 +43,80 @@ public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
             @Param("startDate") Instant startDate,
             @Param("endDate") Instant endDate);
 
+    /**
+     * Source of the availability index. Callers rebuilding it read through
+     * {@link com.booking.unitmanager.config.ReadRouting#onPrimary}.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.booking.unitmanager.model.projection.BookingInterval(" +
+            "b.id, b.unit.id, b.startDate, b.endDate) FROM BookingEntity b " +
+            "WHERE b.status IN ('PENDING', 'CONFIRMED', 'PAID')")
+    List<BookingInterval> findActiveBookingIntervals();
+
+    /**
+     * Insert a PENDING booking priced from the unit's total cost, unless an active booking of the unit
+     * overlaps the period; returns nothing in that case. The id comes from the column default on
+     * {@code bookings_seq}. A missing unit or user fails {@code fk_booking_unit} or {@code fk_booking_user}.
+     */
+    @Query(value = "INSERT INTO bookings (unit_id, user_id, start_date, end_date, total_price, status, " +
+            "created_at, updated_at, payment_deadline) " +
+            "SELECT :unitId, :userId, :startDate, :endDate, " +
+            "COALESCE((SELECT u.total_cost FROM units u WHERE u.id = :unitId), 0) * :nights, 'PENDING', " +
+            ":now, :now, :paymentDeadline " +
+            "WHERE NOT EXISTS (SELECT 1 FROM bookings b WHERE b.unit_id = :unitId " +
+            "AND b.status IN ('PENDING', 'CONFIRMED', 'PAID') " +
+            "AND b.start_date < :endDate AND b.end_date > :startDate) " +
+            "RETURNING id AS \"id\", total_price AS \"totalPrice\"",
+            nativeQuery = true)
+    Optional<AdmittedBooking> insertPendingIfAvailable(
+            @Param("unitId") Long unitId,
+            @Param("userId") Long userId,
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate,
+            @Param("nights") long nights,
+            @Param("now") Instant now,
+            @Param("paymentDeadline") Instant paymentDeadline);
+
+    /**
+     * Compare-and-set status transition: applies only while the booking is still at {@code version}
+     * and {@code from}, and bumps the version. Returns 0 when another transition got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookingEntity b SET b.status = :to, b.version = b.version + 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.version = :version AND b.status = :from")
+    int transition(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("from") BookingStatus from,
+            @Param("to") BookingStatus to,
+            @Param("now") Instant now);
+
     @Query("SELECT b FROM BookingEntity b WHERE b.status = 'PENDING' " +
             "AND b.paymentDeadline < :now")
     List<BookingEntity> findExpiredBookings(@Param("now") Instant now);
+
+    /**
+     * Expire up to {@code limit} overdue PENDING bookings in one statement and return them.
+     * Rows locked by a concurrent payment or cancellation are skipped, not waited on.
+     */
+    @Query(value = "UPDATE bookings SET status = 'EXPIRED', version = version + 1, updated_at = now() " +
+            "WHERE id IN (SELECT id FROM bookings WHERE status = 'PENDING' AND payment_deadline < :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id AS \"id\", unit_id AS \"unitId\", user_id AS \"userId\"",
+            nativeQuery = true)
+    List<ExpiredBooking> expireOverdueBookings(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Expire the given bookings if they are still PENDING and overdue, returning the ones actually expired.
+     */
+    @Query(value = "UPDATE bookings SET status = 'EXPIRED', version = version + 1, updated_at = now() " +
+            "WHERE id IN (:ids) AND status = 'PENDING' AND payment_deadline < :now " +
+            "RETURNING id AS \"id\", unit_id AS \"unitId\", user_id AS \"userId\"",
+            nativeQuery = true)
+    List<ExpiredBooking> expireBookings(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.booking.unitmanager.model.projection.BookingDeadline(b.id, b.paymentDeadline) " +
+            "FROM BookingEntity b WHERE b.status = 'PENDING' AND b.paymentDeadline IS NOT NULL")
+    List<BookingDeadline> findPendingPaymentDeadlines();
 }
@@ -0,0 +1,21 @@
+package com.booking.unitmanager.dao;
+
+import com.booking.unitmanager.model.dto.BookingExportFilter;
+import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.KeysetCursor;
+
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+
+    CursorSlice<BookingReadDTO> findByUserIdAfter(Long userId, KeysetCursor cursor, int size);
+
+    CursorSlice<BookingReadDTO> findByUnitIdAfter(Long unitId, KeysetCursor cursor, int size);
+
+    /**
+     * Bookings matching the filter in id order, read through a forward-only cursor that fetches
+     * {@code fetchSize} rows at a time. Must be consumed and closed inside a transaction.
+     */
+    Stream<BookingReadDTO> streamForExport(BookingExportFilter filter, int fetchSize);
+}
@@ -0,0 +1,100 @@
+package com.booking.unitmanager.dao;
+
+import com.booking.unitmanager.model.dto.BookingExportFilter;
+import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.KeysetCursor;
+import com.booking.unitmanager.model.entity.BookingEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Repository
+class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final Set<String> KEYSET_PROPERTIES = Set.of("id", "startDate", "createdAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public CursorSlice<BookingReadDTO> findByUserIdAfter(Long userId, KeysetCursor cursor, int size) {
+        return findByOwnerAfter("user", userId, cursor, size);
+    }
+
+    @Override
+    public CursorSlice<BookingReadDTO> findByUnitIdAfter(Long unitId, KeysetCursor cursor, int size) {
+        return findByOwnerAfter("unit", unitId, cursor, size);
+    }
+
+    @Override
+    public Stream<BookingReadDTO> streamForExport(BookingExportFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingReadDTO> query = cb.createQuery(BookingReadDTO.class);
+        Root<BookingEntity> bookingRoot = query.from(BookingEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.unitId() != null) {
+            predicates.add(cb.equal(bookingRoot.get("unit").get("id"), filter.unitId()));
+        }
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(bookingRoot.get("user").get("id"), filter.userId()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThan(bookingRoot.<Instant>get("endDate"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(bookingRoot.<Instant>get("startDate"), filter.to()));
+        }
+        if (filter.hasStatuses()) {
+            predicates.add(bookingRoot.get("status").in(filter.statuses()));
+        }
+
+        query.select(toReadDTO(cb, bookingRoot))
+                .where(cb.and(predicates.toArray(new Predicate[0])))
+                .orderBy(cb.asc(bookingRoot.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private CursorSlice<BookingReadDTO> findByOwnerAfter(String owner, Long ownerId, KeysetCursor cursor, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingReadDTO> query = cb.createQuery(BookingReadDTO.class);
+        Root<BookingEntity> bookingRoot = query.from(BookingEntity.class);
+
+        List<Predicate> predicates = List.of(cb.equal(bookingRoot.get(owner).get("id"), ownerId));
+        return KeysetQueries.fetch(entityManager, query, bookingRoot, toReadDTO(cb, bookingRoot),
+                predicates, cursor, KEYSET_PROPERTIES, size);
+    }
+
+    /**
+     * Selects exactly the {@link BookingReadDTO} columns; unit and user ids are read from the
+     * foreign keys, so neither the booking nor its associations are loaded as entities.
+     */
+    private static CompoundSelection<BookingReadDTO> toReadDTO(CriteriaBuilder cb, Root<BookingEntity> bookingRoot) {
+        return cb.construct(BookingReadDTO.class,
+                bookingRoot.get("id"),
+                bookingRoot.get("unit").get("id"),
+                bookingRoot.get("user").get("id"),
+                bookingRoot.get("startDate"),
+                bookingRoot.get("endDate"),
+                bookingRoot.get("totalPrice"),
+                bookingRoot.get("status"),
+                bookingRoot.get("createdAt"),
+                bookingRoot.get("updatedAt"),
+                bookingRoot.get("paymentDeadline"));
+    }
+}
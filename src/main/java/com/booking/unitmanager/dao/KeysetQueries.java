@@ -0,0 +1,125 @@
+package com.booking.unitmanager.dao;
+
+import com.booking.unitmanager.exception.InvalidCursorException;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Seek-method paging shared by the custom repositories: rows are ordered by
+ * {@code (property, id)} and a page starts strictly after the cursor's row, so the
+ * database never counts or skips rows and every page costs the same.
+ */
+final class KeysetQueries {
+
+    private KeysetQueries() {
+    }
+
+    static <T> CursorSlice<T> fetch(
+            EntityManager entityManager,
+            CriteriaQuery<T> query,
+            Root<T> root,
+            List<Predicate> predicates,
+            KeysetCursor cursor,
+            Set<String> sortableProperties,
+            int size
+    ) {
+        return fetch(entityManager, query, root, root, predicates, cursor, sortableProperties, size);
+    }
+
+    /**
+     * Same as above, but selects {@code selection} instead of the root entity, e.g. a DTO
+     * constructor. The selected type must expose {@code id} and every sortable property,
+     * since the next cursor is read from the last row.
+     */
+    static <T> CursorSlice<T> fetch(
+            EntityManager entityManager,
+            CriteriaQuery<T> query,
+            Root<?> root,
+            Selection<? extends T> selection,
+            List<Predicate> predicates,
+            KeysetCursor cursor,
+            Set<String> sortableProperties,
+            int size
+    ) {
+        if (!sortableProperties.contains(cursor.property())) {
+            throw new InvalidCursorException("Unsupported sort property: " + cursor.property());
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        List<Predicate> allPredicates = new ArrayList<>(predicates);
+        if (!cursor.isFirstPage()) {
+            allPredicates.add(seek(cb, root, cursor));
+        }
+        query.select(selection).where(cb.and(allPredicates.toArray(new Predicate[0])));
+        query.orderBy(orderBy(cb, root, cursor));
+
+        List<T> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? nextCursor(cursor, content.getLast()).encode() : null;
+        return new CursorSlice<>(content, size, hasNext, nextCursor);
+    }
+
+    private static <T> Predicate seek(CriteriaBuilder cb, Root<T> root, KeysetCursor cursor) {
+        boolean ascending = cursor.direction() == Sort.Direction.ASC;
+        Path<Long> id = root.get("id");
+        Predicate afterId = ascending ? cb.greaterThan(id, cursor.lastId()) : cb.lessThan(id, cursor.lastId());
+        if (cursor.isIdOrdered()) {
+            return afterId;
+        }
+
+        Path<Comparable<Object>> key = root.get(cursor.property());
+        Comparable<Object> lastValue = parse(key.getJavaType(), cursor.lastValue());
+        Predicate afterKey = ascending ? cb.greaterThan(key, lastValue) : cb.lessThan(key, lastValue);
+        return cb.or(afterKey, cb.and(cb.equal(key, lastValue), afterId));
+    }
+
+    private static <T> List<Order> orderBy(CriteriaBuilder cb, Root<T> root, KeysetCursor cursor) {
+        boolean ascending = cursor.direction() == Sort.Direction.ASC;
+        List<Order> orders = new ArrayList<>();
+        if (!cursor.isIdOrdered()) {
+            Path<?> key = root.get(cursor.property());
+            orders.add(ascending ? cb.asc(key) : cb.desc(key));
+        }
+        Path<?> id = root.get("id");
+        orders.add(ascending ? cb.asc(id) : cb.desc(id));
+        return orders;
+    }
+
+    private static KeysetCursor nextCursor(KeysetCursor cursor, Object lastRow) {
+        BeanWrapper accessor = PropertyAccessorFactory.forBeanPropertyAccess(lastRow);
+        return cursor.after(accessor.getPropertyValue(cursor.property()), (Long) accessor.getPropertyValue("id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> parse(Class<?> type, String value) {
+        try {
+            if (type == Instant.class) {
+                return (Comparable<Object>) (Comparable<?>) Instant.parse(value);
+            }
+            return (Comparable<Object>) DefaultConversionService.getSharedInstance().convert(value, type);
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 
@@ -13,6 +14,7 @@ import java.time.Instant;
 public interface UnitRepository extends JpaRepository<UnitEntity, Long>,
         JpaSpecificationExecutor<UnitEntity>, UnitRepositoryCustom {
 
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(DISTINCT u) FROM UnitEntity u LEFT JOIN u.bookings b " +
             "WHERE b IS NULL OR b.status IN ('CANCELLED', 'EXPIRED') OR " +
             "NOT(b.startDate < :endDate AND b.endDate > :startDate)")
@@ -1,11 +1,20 @@
 package com.booking.unitmanager.dao;
 
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.KeysetCursor;
 import com.booking.unitmanager.model.dto.UnitFilter;
 import com.booking.unitmanager.model.entity.UnitEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface UnitRepositoryCustom {
 
     Page<UnitEntity> findByCriteriaUsingCriteriaApi(UnitFilter unitFilter, Pageable pageable);
+
+    Slice<UnitEntity> findSliceByCriteria(UnitFilter unitFilter, Pageable pageable);
+
+    long countByCriteria(UnitFilter unitFilter);
+
+    CursorSlice<UnitEntity> findByCriteriaAfter(UnitFilter unitFilter, KeysetCursor cursor, int size);
 }
@@ -4,56 +4,97 @@ import com.booking.unitmanager.model.entity.BookingEntity;
 import com.booking.unitmanager.model.entity.UnitEntity;
 import com.booking.unitmanager.model.enums.AccommodationType;
 import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.KeysetCursor;
 import com.booking.unitmanager.model.dto.UnitFilter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Read-only by default like the Spring Data query methods, so searches run outside a service
+ * transaction are routed to a replica when replicas are configured.
+ */
 @Repository
+@Transactional(readOnly = true)
 class UnitRepositoryCustomImpl implements UnitRepositoryCustom {
 
+    private static final Set<String> KEYSET_PROPERTIES = Set.of("id", "numberOfRooms", "floor", "baseCost", "totalCost");
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    /**
+     * The count query only runs when the page alone cannot tell the total,
+     * e.g. never for a first page that is not full.
+     */
     @Override
     public Page<UnitEntity> findByCriteriaUsingCriteriaApi(UnitFilter unitFilter, Pageable pageable) {
+        List<UnitEntity> units = findContent(unitFilter, pageable, pageable.getPageSize());
+        return PageableExecutionUtils.getPage(units, pageable, () -> countByCriteria(unitFilter));
+    }
 
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-
-        CriteriaQuery<UnitEntity> query = cb.createQuery(UnitEntity.class);
-        Root<UnitEntity> unitRoot = query.from(UnitEntity.class);
+    @Override
+    public Slice<UnitEntity> findSliceByCriteria(UnitFilter unitFilter, Pageable pageable) {
+        List<UnitEntity> units = findContent(unitFilter, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = units.size() > pageable.getPageSize();
+        List<UnitEntity> content = hasNext ? units.subList(0, pageable.getPageSize()) : units;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
 
+    @Override
+    public long countByCriteria(UnitFilter unitFilter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
         Root<UnitEntity> countRoot = countQuery.from(UnitEntity.class);
 
-        List<Predicate> predicates = buildPredicates(cb, unitRoot, unitFilter);
-        List<Predicate> countPredicates = buildPredicates(cb, countRoot, unitFilter);
+        List<Predicate> countPredicates = buildPredicates(cb, countQuery, countRoot, unitFilter);
+        countQuery.select(cb.count(countRoot)).where(cb.and(countPredicates.toArray(new Predicate[0])));
 
-        query.select(unitRoot).distinct(true).where(cb.and(predicates.toArray(new Predicate[0])));
-        countQuery.select(cb.countDistinct(countRoot)).where(cb.and(countPredicates.toArray(new Predicate[0])));
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    private List<UnitEntity> findContent(UnitFilter unitFilter, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<UnitEntity> query = cb.createQuery(UnitEntity.class);
+        Root<UnitEntity> unitRoot = query.from(UnitEntity.class);
+
+        List<Predicate> predicates = buildPredicates(cb, query, unitRoot, unitFilter);
+        query.select(unitRoot).where(cb.and(predicates.toArray(new Predicate[0])));
 
         applySorting(pageable, cb, unitRoot, query);
 
         TypedQuery<UnitEntity> typedQuery = entityManager.createQuery(query);
         typedQuery.setFirstResult((int) pageable.getOffset());
-        typedQuery.setMaxResults(pageable.getPageSize());
+        typedQuery.setMaxResults(limit);
 
-        List<UnitEntity> units = typedQuery.getResultList();
-        Long count = entityManager.createQuery(countQuery).getSingleResult();
+        return typedQuery.getResultList();
+    }
 
-        return new PageImpl<>(units, pageable, count);
+    @Override
+    public CursorSlice<UnitEntity> findByCriteriaAfter(UnitFilter unitFilter, KeysetCursor cursor, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UnitEntity> query = cb.createQuery(UnitEntity.class);
+        Root<UnitEntity> unitRoot = query.from(UnitEntity.class);
+
+        List<Predicate> predicates = buildPredicates(cb, query, unitRoot, unitFilter);
+        return KeysetQueries.fetch(entityManager, query, unitRoot, predicates, cursor, KEYSET_PROPERTIES, size);
     }
 
     private static void applySorting(Pageable pageable, CriteriaBuilder cb, Root<UnitEntity> unitRoot, CriteriaQuery<UnitEntity> query) {
@@ -70,8 +111,9 @@ class UnitRepositoryCustomImpl implements UnitRepositoryCustom {
         }
     }
 
-    private List<Predicate> buildPredicates(
+    static List<Predicate> buildPredicates(
             CriteriaBuilder cb,
+            CriteriaQuery<?> query,
             Root<UnitEntity> unit,
             UnitFilter unitFilter
     ) {
@@ -102,28 +144,21 @@ class UnitRepositoryCustomImpl implements UnitRepositoryCustom {
             predicates.add(cb.lessThanOrEqualTo(unit.get("totalCost"), maxCost));
         }
 
-        LocalDate startDate = unitFilter.startDate();
-        LocalDate endDate = unitFilter.endDate();
-        if (startDate != null && endDate != null) {
-            Join<UnitEntity, BookingEntity> bookingJoin = unit.join("bookings", JoinType.LEFT);
-
-            java.time.Instant startInstant = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            java.time.Instant endInstant = endDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-
-            // predicate for booking availability
-            Predicate noBookings = cb.isNull(bookingJoin.get("id"));
-
-            // predicate for cancelled or expired bookings
-            Predicate cancelledOrExpired = bookingJoin.get("status")
-                    .in(BookingStatus.CANCELLED, BookingStatus.EXPIRED);
-
-            // predicate for non-overlapping bookings
-            Predicate notOverlapping = cb.or(
-                    cb.greaterThanOrEqualTo(bookingJoin.get("startDate"), endInstant),
-                    cb.lessThanOrEqualTo(bookingJoin.get("endDate"), startInstant)
+        if (unitFilter.hasDates()) {
+            Instant startInstant = unitFilter.startInstant();
+            Instant endInstant = unitFilter.endInstant();
+
+            // anti-join: no active booking of this unit overlaps the requested period
+            Subquery<Integer> overlapping = query.subquery(Integer.class);
+            Root<BookingEntity> booking = overlapping.from(BookingEntity.class);
+            overlapping.select(cb.literal(1)).where(
+                    cb.equal(booking.get("unit"), unit),
+                    booking.get("status").in(BookingStatus.PENDING, BookingStatus.PAID),
+                    cb.lessThan(booking.get("startDate"), endInstant),
+                    cb.greaterThan(booking.get("endDate"), startInstant)
             );
 
-            predicates.add(cb.or(noBookings, cancelledOrExpired, notOverlapping));
+            predicates.add(cb.not(cb.exists(overlapping)));
         }
 
         return predicates;
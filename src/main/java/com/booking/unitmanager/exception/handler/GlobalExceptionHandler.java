@@ -2,13 +2,19 @@ package com.booking.unitmanager.exception.handler;
 
 
 import com.booking.unitmanager.exception.EntityNotFoundException;
+import com.booking.unitmanager.exception.ExportLimitExceededException;
 import com.booking.unitmanager.exception.IllegalStateEntityException;
+import com.booking.unitmanager.exception.InvalidCursorException;
+import com.booking.unitmanager.exception.InvalidDateRangeException;
 import com.booking.unitmanager.exception.UnitIsNotAvailableException;
 import com.booking.unitmanager.exception.handler.dto.ErrorResponse;
 import com.booking.unitmanager.exception.handler.dto.ValidationErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -36,7 +42,7 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
-    @ExceptionHandler(UnitIsNotAvailableException.class)
+    @ExceptionHandler({UnitIsNotAvailableException.class, InvalidCursorException.class, InvalidDateRangeException.class})
     public ResponseEntity<ErrorResponse> handleDomainException(Exception ex, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
@@ -46,6 +52,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ExportLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleExportLimitExceeded(Exception ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage(),
+                Instant.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(IllegalStateEntityException.class)
     public ResponseEntity<ErrorResponse> handleIllegalStateEntityException(Exception ex, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(
@@ -56,6 +72,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    /**
+     * A booking transition that kept losing compare-and-set races after its bounded retries.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(Exception ex, WebRequest request) {
+        log.warn("Concurrent modification was not resolved by retries: {}", ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "The booking was modified concurrently, please retry",
+                Instant.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex,
@@ -76,6 +106,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * With virtual threads the connection pools are what bound concurrency against Postgres and Redis;
+     * a request that cannot get a connection in time is told to retry instead of failing with 500.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDataStoreUnavailable(Exception ex, WebRequest request) {
+        log.warn("Data store connection unavailable: {}", ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service is temporarily overloaded, please retry",
+                Instant.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAllExceptions(Exception ex, WebRequest request) {
         log.warn("An unexpected error occurred", ex);
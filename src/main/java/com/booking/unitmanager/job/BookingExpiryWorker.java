@@ -0,0 +1,86 @@
+package com.booking.unitmanager.job;
+
+import com.booking.unitmanager.service.BookingService;
+import com.booking.unitmanager.service.impl.BookingExpiryQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Expires each PENDING booking as soon as its payment deadline passes, instead of waiting
+ * for the next {@link ExpiredBookingJob} sweep. A failed batch is queued again with exponential
+ * backoff, so a transient database error delays expiry by seconds rather than until the sweep.
+ * Batches are capped at {@code booking.expiry.chunk.size}, like the chunks of the sweep.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "booking.expiry.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryWorker implements SmartLifecycle {
+
+    private static final Duration MIN_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final BookingExpiryQueue bookingExpiryQueue;
+    private final BookingService bookingService;
+
+    @Value("${booking.expiry.chunk.size:500}")
+    private Integer expiryChunkSize;
+
+    private volatile Thread worker;
+    private Duration retryDelay = MIN_RETRY_DELAY;
+
+    @Override
+    public void start() {
+        worker = Thread.ofPlatform()
+                .name("booking-expiry")
+                .daemon()
+                .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        log.info("Booking expiry worker started");
+        while (worker == Thread.currentThread()) {
+            List<Long> dueBookingIds;
+            try {
+                dueBookingIds = bookingExpiryQueue.awaitExpired(expiryChunkSize);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                int expired = bookingService.expireBookings(dueBookingIds);
+                if (expired > 0) {
+                    log.debug("Expired {} bookings on deadline", expired);
+                }
+                retryDelay = MIN_RETRY_DELAY;
+            } catch (RuntimeException ex) {
+                log.error("Failed to expire {} due bookings, retrying in {}", dueBookingIds.size(), retryDelay, ex);
+                bookingExpiryQueue.retry(dueBookingIds, retryDelay);
+                Duration doubled = retryDelay.multipliedBy(2);
+                retryDelay = doubled.compareTo(MAX_RETRY_DELAY) < 0 ? doubled : MAX_RETRY_DELAY;
+            }
+        }
+        log.info("Booking expiry worker stopped");
+    }
+}
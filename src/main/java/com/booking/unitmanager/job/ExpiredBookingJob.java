@@ -1,22 +1,30 @@
 package com.booking.unitmanager.job;
 
 import com.booking.unitmanager.service.BookingService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Safety-net sweep for overdue bookings; regular expiry happens in {@link BookingExpiryWorker}.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ExpiredBookingJob {
 
     private final BookingService bookingService;
+    private final MeterRegistry meterRegistry;
 
-    @Scheduled(cron = "${job.process.expired.bookings.cron:0 */5 * * * *}")
+    @Timed(value = "job.duration", extraTags = {"job", "expired-bookings"})
+    @Scheduled(cron = "${job.process.expired.bookings.cron:0 */30 * * * *}")
     public void processExpiredBookings() {
         log.info("Processing expired bookings...");
-        bookingService.processExpiredBookings();
-        log.info("Expired bookings processed successfully");
+        int expired = bookingService.processExpiredBookings();
+        meterRegistry.summary("job.rows", "job", "expired-bookings", "rows", "expired.bookings").record(expired);
+        log.info("Expired bookings processed successfully, {} bookings expired", expired);
     }
 }
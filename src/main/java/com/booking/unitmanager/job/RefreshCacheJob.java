@@ -1,6 +1,9 @@
 package com.booking.unitmanager.job;
 
+import com.booking.unitmanager.service.impl.UnitAvailabilityIndex;
 import com.booking.unitmanager.service.impl.UnitCacheService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -12,11 +15,19 @@ import org.springframework.stereotype.Component;
 public class RefreshCacheJob {
 
     private final UnitCacheService unitCacheService;
+    private final UnitAvailabilityIndex unitAvailabilityIndex;
+    private final MeterRegistry meterRegistry;
 
+    @Timed(value = "job.duration", extraTags = {"job", "refresh-unit-cache"})
     @Scheduled(cron = "${job.refresh.unit.cache.cron:0 0 * * * *}")
     public void refresh() {
         log.info("Start refreshing cache...");
-        unitCacheService.rebuildCache();
+        Long availableUnits = unitCacheService.rebuildCache();
+        int activeIntervals = unitAvailabilityIndex.rebuild();
+        meterRegistry.summary("job.rows", "job", "refresh-unit-cache", "rows", "available.units")
+                .record(availableUnits);
+        meterRegistry.summary("job.rows", "job", "refresh-unit-cache", "rows", "active.bookings")
+                .record(activeIntervals);
         log.info("Finished refreshing cache");
     }
 }
@@ -0,0 +1,22 @@
+package com.booking.unitmanager.model.dto;
+
+import com.booking.unitmanager.model.enums.AvailabilityEventType;
+
+import java.time.Instant;
+
+/**
+ * One availability feed event. Booking fields are {@code null} for unit events,
+ * and the dates are {@code null} for expirations. {@code lastUnitId} is set only for
+ * {@link AvailabilityEventType#UNITS_IMPORTED}, whose units fall in {@code unitId..lastUnitId}.
+ */
+public record AvailabilityEventDTO(
+        long id,
+        AvailabilityEventType type,
+        Long unitId,
+        Long lastUnitId,
+        Long bookingId,
+        Instant startDate,
+        Instant endDate,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,21 @@
+package com.booking.unitmanager.model.dto;
+
+import com.booking.unitmanager.model.enums.BatchMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingBatchCreateDTO {
+
+    @NotEmpty(message = "Bookings are required")
+    @Size(max = 1000, message = "A batch may contain at most 1000 bookings")
+    private List<@Valid @NotNull BookingCreateDTO> bookings;
+
+    @NotNull(message = "Mode is required")
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+}
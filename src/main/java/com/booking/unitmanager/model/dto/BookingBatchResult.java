@@ -0,0 +1,17 @@
+package com.booking.unitmanager.model.dto;
+
+import java.util.List;
+
+/**
+ * Per-item outcome of a batch booking request, in request order.
+ * Each item carries either the created booking or the reason it was not created.
+ */
+public record BookingBatchResult(
+        int created,
+        int rejected,
+        List<Item> items
+) {
+
+    public record Item(int index, BookingReadDTO booking, String error) {
+    }
+}
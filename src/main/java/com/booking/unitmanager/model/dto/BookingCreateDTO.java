@@ -1,5 +1,7 @@
 package com.booking.unitmanager.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -22,4 +24,10 @@ public class BookingCreateDTO {
     @NotNull(message = "End date is required")
     @Future(message = "End date must be in the future")
     private Instant endDate;
+
+    @JsonIgnore
+    @AssertTrue(message = "End date must be after start date")
+    public boolean isEndDateAfterStartDate() {
+        return startDate == null || endDate == null || endDate.isAfter(startDate);
+    }
 }
@@ -0,0 +1,25 @@
+package com.booking.unitmanager.model.dto;
+
+import com.booking.unitmanager.model.enums.BookingStatus;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Selects the bookings of a unit or a user to export. {@code from}/{@code to} keep bookings
+ * overlapping that period; an empty {@code statuses} set keeps every status.
+ */
+@Builder
+public record BookingExportFilter(
+        Long unitId,
+        Long userId,
+        Instant from,
+        Instant to,
+        Set<BookingStatus> statuses
+) {
+
+    public boolean hasStatuses() {
+        return statuses != null && !statuses.isEmpty();
+    }
+}
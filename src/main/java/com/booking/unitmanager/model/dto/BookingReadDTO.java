@@ -1,12 +1,16 @@
 package com.booking.unitmanager.model.dto;
 
 import com.booking.unitmanager.model.enums.BookingStatus;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingReadDTO {
 
     private Long id;
@@ -0,0 +1,68 @@
+package com.booking.unitmanager.model.dto;
+
+import com.booking.unitmanager.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated listing: the sort property and direction plus the sort key
+ * and id of the last row already returned. Travels to clients as an opaque URL-safe token.
+ */
+public record KeysetCursor(
+        String property,
+        Sort.Direction direction,
+        String lastValue,
+        Long lastId
+) {
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "\n";
+
+    /**
+     * Cursor for the first page, ordered by the first order of {@code sort}, or by id.
+     */
+    public static KeysetCursor first(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc(ID));
+        return new KeysetCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    /**
+     * Decode a token issued by {@link #encode()}; a blank token starts at the first page.
+     */
+    public static KeysetCursor decode(String token, Sort sort) {
+        if (token == null || token.isBlank()) {
+            return first(sort);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]), parts[2], Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    public boolean isIdOrdered() {
+        return ID.equals(property);
+    }
+
+    public KeysetCursor after(Object value, Long id) {
+        String encodedValue = value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+        return new KeysetCursor(property, direction, encodedValue, id);
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, property, direction.name(), lastValue, String.valueOf(lastId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,14 @@
+package com.booking.unitmanager.model.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The requested units that are free for the whole period, in request order.
+ */
+public record UnitAvailabilityDTO(
+        Instant startDate,
+        Instant endDate,
+        List<Long> availableUnitIds
+) {
+}
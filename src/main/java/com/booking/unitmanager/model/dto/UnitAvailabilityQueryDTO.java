@@ -0,0 +1,31 @@
+package com.booking.unitmanager.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class UnitAvailabilityQueryDTO {
+
+    @NotEmpty(message = "Unit IDs are required")
+    @Size(max = 500, message = "At most 500 units can be checked at once")
+    private List<@NotNull Long> unitIds;
+
+    @NotNull(message = "Start date is required")
+    private Instant startDate;
+
+    @NotNull(message = "End date is required")
+    private Instant endDate;
+
+    @JsonIgnore
+    @AssertTrue(message = "End date must be after start date")
+    public boolean isEndDateAfterStartDate() {
+        return startDate == null || endDate == null || endDate.isAfter(startDate);
+    }
+}
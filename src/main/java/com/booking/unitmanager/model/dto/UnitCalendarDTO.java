@@ -0,0 +1,16 @@
+package com.booking.unitmanager.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Occupancy of one unit for the days {@code [from, to)}. {@code occupiedDays} is a base64
+ * bitmap with one bit per day, least significant bit first: bit {@code i} of byte {@code i / 8}
+ * is set when day {@code from + (8 * byte + i)} has an active booking.
+ */
+public record UnitCalendarDTO(
+        Long unitId,
+        LocalDate from,
+        LocalDate to,
+        String occupiedDays
+) {
+}
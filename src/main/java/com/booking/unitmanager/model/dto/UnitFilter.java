@@ -4,7 +4,9 @@ import com.booking.unitmanager.model.enums.AccommodationType;
 import lombok.Builder;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 
 @Builder
 public record UnitFilter(
@@ -20,4 +22,47 @@ public record UnitFilter(
     public static UnitFilter empty() {
         return new UnitFilter(null, null, null, null, null, null, null);
     }
+
+    /**
+     * Equivalent filter with a canonical representation, so that e.g. {@code 100} and {@code 100.00}
+     * produce equal (and equally hashed) filters.
+     */
+    public UnitFilter normalized() {
+        return new UnitFilter(numberOfRooms, accommodationType, floor,
+                normalize(minCost), normalize(maxCost), startDate, endDate);
+    }
+
+    public boolean hasDates() {
+        return startDate != null && endDate != null;
+    }
+
+    public Instant startInstant() {
+        return startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    public Instant endInstant() {
+        return endDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Whether the requested period intersects {@code [start, end)}; filters without dates never do.
+     */
+    public boolean overlaps(Instant start, Instant end) {
+        return hasDates() && startInstant().isBefore(end) && endInstant().isAfter(start);
+    }
+
+    /**
+     * Whether the unit satisfies every criterion except the date range.
+     */
+    public boolean matchesAttributes(UnitReadDTO unit) {
+        return (numberOfRooms == null || numberOfRooms.equals(unit.getNumberOfRooms()))
+                && (accommodationType == null || accommodationType == unit.getAccommodationType())
+                && (floor == null || floor.equals(unit.getFloor()))
+                && (minCost == null || (unit.getTotalCost() != null && unit.getTotalCost().compareTo(minCost) >= 0))
+                && (maxCost == null || (unit.getTotalCost() != null && unit.getTotalCost().compareTo(maxCost) <= 0));
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
 }
@@ -0,0 +1,17 @@
+package com.booking.unitmanager.model.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk unit import. {@code errors} lists rejected items by their
+ * zero-based position in the input and is capped, so {@code rejected} may exceed its size.
+ */
+public record UnitImportResult(
+        int imported,
+        int rejected,
+        List<ItemError> errors
+) {
+
+    public record ItemError(long index, String message) {
+    }
+}
@@ -17,7 +17,8 @@ import java.time.Instant;
 public class BookingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -52,6 +53,10 @@ public class BookingEntity {
     @Column(name = "payment_deadline")
     private Instant paymentDeadline;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public void cancel() {
         this.status = BookingStatus.CANCELLED;
     }
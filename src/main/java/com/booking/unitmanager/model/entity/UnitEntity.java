@@ -16,7 +16,8 @@ import java.util.Set;
 public class UnitEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "units_seq")
+    @SequenceGenerator(name = "units_seq", sequenceName = "units_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,18 @@
+package com.booking.unitmanager.model.enums;
+
+/**
+ * Change that may affect the availability of a unit, as pushed by the availability feed.
+ */
+public enum AvailabilityEventType {
+    BOOKING_CREATED,
+    BOOKING_CANCELLED,
+    BOOKING_PAID,
+    BOOKING_EXPIRED,
+    UNIT_CREATED,
+    UNIT_UPDATED,
+    UNIT_DELETED,
+    /**
+     * A chunk of a bulk import; the event covers the id range {@code unitId..lastUnitId}.
+     */
+    UNITS_IMPORTED
+}
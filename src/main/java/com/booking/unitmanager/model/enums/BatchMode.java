@@ -0,0 +1,9 @@
+package com.booking.unitmanager.model.enums;
+
+/**
+ * Whether a batch is created only if every item can be, or item by item.
+ */
+public enum BatchMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
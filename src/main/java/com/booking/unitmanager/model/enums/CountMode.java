@@ -0,0 +1,11 @@
+package com.booking.unitmanager.model.enums;
+
+/**
+ * How a search page reports its total: not at all, with an exact COUNT query,
+ * or with a recently computed count that may be slightly stale.
+ */
+public enum CountMode {
+    NONE,
+    EXACT,
+    ESTIMATED
+}
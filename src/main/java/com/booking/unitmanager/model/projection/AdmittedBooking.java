@@ -0,0 +1,10 @@
+package com.booking.unitmanager.model.projection;
+
+import java.math.BigDecimal;
+
+public interface AdmittedBooking {
+
+    Long getId();
+
+    BigDecimal getTotalPrice();
+}
@@ -0,0 +1,9 @@
+package com.booking.unitmanager.model.projection;
+
+import java.time.Instant;
+
+public record BookingDeadline(
+        Long id,
+        Instant paymentDeadline
+) {
+}
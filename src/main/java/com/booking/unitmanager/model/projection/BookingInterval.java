@@ -0,0 +1,11 @@
+package com.booking.unitmanager.model.projection;
+
+import java.time.Instant;
+
+public record BookingInterval(
+        Long id,
+        Long unitId,
+        Instant startDate,
+        Instant endDate
+) {
+}
@@ -0,0 +1,10 @@
+package com.booking.unitmanager.model.projection;
+
+public interface ExpiredBooking {
+
+    Long getId();
+
+    Long getUnitId();
+
+    Long getUserId();
+}
@@ -0,0 +1,15 @@
+package com.booking.unitmanager.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+public interface AvailabilityFeedService {
+
+    /**
+     * Open a feed of availability events for the given units, or for every unit when the set is empty.
+     * With {@code lastEventId} the events after it are replayed first; if they are no longer buffered
+     * the feed starts with a {@code reset} event, telling the client to reload availability.
+     */
+    SseEmitter subscribe(Set<Long> unitIds, Long lastEventId);
+}
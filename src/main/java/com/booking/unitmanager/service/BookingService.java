@@ -1,15 +1,28 @@
 package com.booking.unitmanager.service;
 
+import com.booking.unitmanager.model.dto.BookingBatchResult;
 import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingExportFilter;
 import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.enums.BatchMode;
+import com.booking.unitmanager.model.enums.ExportFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
 
     BookingReadDTO createBooking(BookingCreateDTO createDTO);
 
+    /**
+     * Create many bookings at once; every item gets its own result, in request order.
+     */
+    BookingBatchResult createBookings(List<BookingCreateDTO> bookings, BatchMode mode);
+
     BookingReadDTO getBooking(Long id);
 
     BookingReadDTO cancelBooking(Long id);
@@ -18,5 +31,17 @@ public interface BookingService {
 
     Page<BookingReadDTO> findByUnitId(Long unitId, Pageable pageable);
 
-    void processExpiredBookings();
+    CursorSlice<BookingReadDTO> findByUserId(Long userId, String cursor, Pageable pageable);
+
+    CursorSlice<BookingReadDTO> findByUnitId(Long unitId, String cursor, Pageable pageable);
+
+    /**
+     * Check the filter and return a body that streams every matching booking in {@code format}
+     * straight from a database cursor, so memory use does not grow with the export size.
+     */
+    StreamingResponseBody exportBookings(BookingExportFilter filter, ExportFormat format);
+
+    int processExpiredBookings();
+
+    int expireBookings(Collection<Long> bookingIds);
 }
@@ -1,18 +1,33 @@
 package com.booking.unitmanager.service;
 
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.UnitCalendarDTO;
 import com.booking.unitmanager.model.dto.UnitCreateDTO;
 import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.dto.UnitImportResult;
 import com.booking.unitmanager.model.dto.UnitReadDTO;
 import com.booking.unitmanager.model.dto.UnitUpdateDTO;
+import com.booking.unitmanager.model.enums.CountMode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.InputStream;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface UnitService {
 
     UnitReadDTO createUnit(UnitCreateDTO unit);
 
+    /**
+     * Create units from a JSON array or newline-delimited JSON stream of {@link UnitCreateDTO}s.
+     */
+    UnitImportResult importUnits(InputStream units);
+
     UnitReadDTO getUnit(Long id);
 
     UnitReadDTO updateUnit(Long id, UnitUpdateDTO unitUpdateDTO);
@@ -21,7 +36,24 @@ public interface UnitService {
 
     Page<UnitReadDTO> findByCriteria(UnitFilter unitFilter, Pageable pageable);
 
+    /**
+     * Search page whose total is computed according to {@code countMode};
+     * a {@link Page} is returned unless the mode is {@link CountMode#NONE}.
+     */
+    Slice<UnitReadDTO> findByCriteria(UnitFilter unitFilter, Pageable pageable, CountMode countMode);
+
+    CursorSlice<UnitReadDTO> findByCriteria(UnitFilter unitFilter, String cursor, Pageable pageable);
+
     boolean isUnitAvailable(Long unitId, Instant startDate, Instant endDate);
 
+    /**
+     * Subset of {@code unitIds} free for the whole period, without a query per unit.
+     */
+    List<Long> findAvailableUnitIds(Collection<Long> unitIds, Instant startDate, Instant endDate);
+
     Long getAvailableUnitsCount();
+
+    Map<LocalDate, Long> getAvailableUnitsCountByDay(LocalDate from, int days);
+
+    UnitCalendarDTO getUnitCalendar(Long unitId, LocalDate from, LocalDate to);
 }
@@ -0,0 +1,136 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.dto.AvailabilityEventDTO;
+import com.booking.unitmanager.model.enums.AvailabilityEventType;
+import com.booking.unitmanager.service.AvailabilityFeedService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process log of availability changes of this node, fanned out to SSE subscribers.
+ * The last {@code availability.feed.replay.size} events are kept for Last-Event-ID resume.
+ * Event ids start from the startup time in microseconds, so an id issued before a restart
+ * is never mistaken for one of the new process and triggers a reset instead.
+ */
+@Slf4j
+@Service
+class AvailabilityEventFeed implements AvailabilityFeedService {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<AvailabilityEventDTO> replay = new ArrayDeque<>();
+    private final Set<FeedSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private long lastEventId = System.currentTimeMillis() * 1000;
+
+    @Value("${availability.feed.replay.size:1000}")
+    private int replaySize;
+
+    @Value("${availability.feed.max.pending:1000}")
+    private int maxPending;
+
+    @Value("${availability.feed.coalesce.millis:250}")
+    private long coalesceMillis;
+
+    @Value("${availability.feed.heartbeat.seconds:15}")
+    private long heartbeatSeconds;
+
+    /**
+     * Publish a booking change once the current transaction commits.
+     */
+    void bookingChanged(AvailabilityEventType type, Long bookingId, Long unitId, Instant startDate, Instant endDate) {
+        AfterCommit.run(() -> append(type, unitId, null, bookingId, startDate, endDate));
+    }
+
+    /**
+     * Publish a unit change once the current transaction commits.
+     */
+    void unitChanged(AvailabilityEventType type, Long unitId) {
+        AfterCommit.run(() -> append(type, unitId, null, null, null, null));
+    }
+
+    /**
+     * Publish one event for a committed chunk of imported units, so a bulk import takes one slot
+     * of the replay buffer per chunk instead of one per unit.
+     */
+    void unitsImported(Long firstUnitId, Long lastUnitId) {
+        AfterCommit.run(() -> append(AvailabilityEventType.UNITS_IMPORTED, firstUnitId, lastUnitId, null, null, null));
+    }
+
+    @Override
+    public SseEmitter subscribe(Set<Long> unitIds, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        FeedSubscription subscription = new FeedSubscription(emitter, unitIds, maxPending,
+                Duration.ofMillis(coalesceMillis), Duration.ofSeconds(heartbeatSeconds));
+
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                if (canResumeAfter(lastEventId)) {
+                    replay.stream()
+                            .filter(event -> event.id() > lastEventId)
+                            .forEach(subscription::offer);
+                } else {
+                    subscription.requestReset();
+                }
+            }
+            subscriptions.add(subscription);
+        } finally {
+            lock.unlock();
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(ex -> unsubscribe(subscription));
+        subscription.start();
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.forEach(FeedSubscription::complete);
+        subscriptions.clear();
+    }
+
+    private void append(AvailabilityEventType type, Long unitId, Long lastUnitId, Long bookingId,
+                        Instant startDate, Instant endDate) {
+        lock.lock();
+        try {
+            AvailabilityEventDTO event = new AvailabilityEventDTO(
+                    ++lastEventId, type, unitId, lastUnitId, bookingId, startDate, endDate, Instant.now());
+            if (replay.size() == replaySize) {
+                replay.pollFirst();
+            }
+            replay.addLast(event);
+            // Offering only buffers the event; each subscription sends on its own thread
+            subscriptions.forEach(subscription -> subscription.offer(event));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether every event after {@code eventId} is still buffered. Called with the lock held.
+     */
+    private boolean canResumeAfter(long eventId) {
+        if (eventId == lastEventId) {
+            return true;
+        }
+        AvailabilityEventDTO oldest = replay.peekFirst();
+        return eventId < lastEventId && oldest != null && oldest.id() <= eventId + 1;
+    }
+
+    private void unsubscribe(FeedSubscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.close();
+        log.debug("Availability feed subscriber left, {} remaining", subscriptions.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.config.ReadRouting;
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.model.projection.BookingDeadline;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment deadlines of PENDING bookings, ordered by due time.
+ * Cancellation only forgets the booking; its queue entry is skipped when it comes due,
+ * which keeps {@link #cancel} O(1) at the cost of holding entries until their deadline.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryQueue {
+
+    private final BookingRepository bookingRepository;
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    private final ConcurrentMap<Long, Deadline> scheduled = new ConcurrentHashMap<>();
+
+    /**
+     * Load the pending deadlines from the primary, so a booking made just before startup is not
+     * missing from the queue because a replica had not replayed it yet.
+     */
+    @PostConstruct
+    public void rehydrate() {
+        List<BookingDeadline> deadlines = ReadRouting.onPrimary(bookingRepository::findPendingPaymentDeadlines);
+        deadlines.forEach(deadline -> enqueue(deadline.id(), deadline.paymentDeadline()));
+        log.info("Booking expiry queue rehydrated with {} pending deadlines", deadlines.size());
+    }
+
+    /**
+     * Track the booking's payment deadline once the current transaction commits.
+     */
+    public void schedule(Long bookingId, Instant paymentDeadline) {
+        AfterCommit.run(() -> enqueue(bookingId, paymentDeadline));
+    }
+
+    /**
+     * Stop tracking a booking that was paid, cancelled or expired, once the current transaction commits.
+     */
+    public void cancel(Long bookingId) {
+        AfterCommit.run(() -> scheduled.remove(bookingId));
+    }
+
+    /**
+     * Block until at least one tracked deadline has passed and return up to {@code maxBatch} due bookings.
+     */
+    public List<Long> awaitExpired(int maxBatch) throws InterruptedException {
+        List<Deadline> due = new ArrayList<>(maxBatch);
+        due.add(queue.take());
+        queue.drainTo(due, maxBatch - 1);
+
+        List<Long> bookingIds = new ArrayList<>(due.size());
+        for (Deadline deadline : due) {
+            if (scheduled.remove(deadline.bookingId, deadline)) {
+                bookingIds.add(deadline.bookingId);
+            }
+        }
+        return bookingIds;
+    }
+
+    /**
+     * Track bookings again whose expiry failed, due after {@code delay}. A booking paid or cancelled
+     * in the meantime is harmless: the expiring update only touches PENDING rows.
+     */
+    public void retry(Collection<Long> bookingIds, Duration delay) {
+        Instant dueAt = Instant.now().plus(delay);
+        bookingIds.forEach(bookingId -> scheduled.computeIfAbsent(bookingId, id -> {
+            Deadline deadline = new Deadline(id, dueAt.toEpochMilli());
+            queue.put(deadline);
+            return deadline;
+        }));
+    }
+
+    public int size() {
+        return scheduled.size();
+    }
+
+    private void enqueue(Long bookingId, Instant paymentDeadline) {
+        // One millisecond late rather than early: the expiring UPDATE requires payment_deadline < now
+        Deadline deadline = new Deadline(bookingId, paymentDeadline.toEpochMilli() + 1);
+        scheduled.put(bookingId, deadline);
+        queue.put(deadline);
+    }
+
+    private static final class Deadline implements Delayed {
+
+        private final Long bookingId;
+        private final long dueAtMillis;
+
+        private Deadline(Long bookingId, long dueAtMillis) {
+            this.bookingId = bookingId;
+            this.dueAtMillis = dueAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Deadline) other).dueAtMillis);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.exception.ExportLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the booking exports running on this node. An export holds a read-only transaction and
+ * a pooled connection for as long as its client keeps downloading, so without a cap slow
+ * downloads could take every connection of the pool away from regular requests.
+ */
+@Component
+class BookingExportPermits {
+
+    private final Semaphore permits;
+
+    BookingExportPermits(@Value("${booking.export.max.concurrent:4}") int maxConcurrent) {
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Take a permit without waiting; callers must {@link #release()} it once the export ends.
+     */
+    void acquire() {
+        if (!permits.tryAcquire()) {
+            throw new ExportLimitExceededException("Too many booking exports in progress, please retry later");
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,37 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.enums.BookingStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for booking requests turned away by the domain rules. Latency is timed separately
+ * by {@code @Timed} on the services.
+ */
+@Component
+@RequiredArgsConstructor
+class BookingMetrics {
+
+    static final String DETECTED_BY_INDEX = "index";
+    static final String DETECTED_BY_QUERY = "query";
+    static final String DETECTED_BY_CONSTRAINT = "constraint";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * A booking was rejected because the unit is taken: by the availability index, by the admission
+     * insert, or by the exclusion constraint when another node won the race.
+     */
+    void unitNotAvailable(String detectedBy) {
+        meterRegistry.counter("booking.availability.rejections", "detected.by", detectedBy).increment();
+    }
+
+    /**
+     * An operation was attempted on a booking whose status does not allow it.
+     */
+    void illegalTransition(String operation, BookingStatus status) {
+        meterRegistry.counter("booking.illegal.transitions", "operation", operation, "status", status.name())
+                .increment();
+    }
+}
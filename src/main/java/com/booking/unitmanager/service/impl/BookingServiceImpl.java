@@ -5,68 +5,347 @@ import com.booking.unitmanager.dao.UnitRepository;
 import com.booking.unitmanager.dao.UserRepository;
 import com.booking.unitmanager.exception.EntityNotFoundException;
 import com.booking.unitmanager.exception.IllegalStateEntityException;
+import com.booking.unitmanager.exception.InvalidDateRangeException;
 import com.booking.unitmanager.exception.UnitIsNotAvailableException;
 import com.booking.unitmanager.mapper.BookingMapper;
+import com.booking.unitmanager.model.dto.BookingBatchResult;
 import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingExportFilter;
 import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.KeysetCursor;
 import com.booking.unitmanager.model.entity.BookingEntity;
 import com.booking.unitmanager.model.entity.UnitEntity;
 import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AvailabilityEventType;
+import com.booking.unitmanager.model.enums.BatchMode;
 import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.model.enums.ExportFormat;
+import com.booking.unitmanager.model.projection.AdmittedBooking;
+import com.booking.unitmanager.model.projection.ExpiredBooking;
 import com.booking.unitmanager.service.BookingService;
 import com.booking.unitmanager.service.UnitService;
+import com.booking.unitmanager.service.impl.UnitSearchResultCache.BookedUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "booking.service", histogram = true)
 class BookingServiceImpl implements BookingService {
 
+    /**
+     * SQLSTATE raised by the {@code ex_bookings_unit_period} exclusion constraint.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private static final String FK_BOOKING_UNIT = "fk_booking_unit";
+    private static final String FK_BOOKING_USER = "fk_booking_user";
+
+    private static final String CSV_HEADER =
+            "id,unitId,userId,startDate,endDate,totalPrice,status,createdAt,updatedAt,paymentDeadline\n";
+
     private final BookingRepository bookingRepository;
     private final UnitRepository unitRepository;
     private final UserRepository userRepository;
     private final BookingMapper bookingMapper;
     private final UnitService unitService;
     private final UnitCacheService unitCacheService;
+    private final UnitAvailabilityIndex unitAvailabilityIndex;
+    private final UnitAdmissionLocks unitAdmissionLocks;
+    private final BookingExpiryQueue bookingExpiryQueue;
+    private final BookingExportPermits bookingExportPermits;
+    private final UnitSearchResultCache unitSearchResultCache;
+    private final AvailabilityEventFeed availabilityEventFeed;
+    private final BookingMetrics bookingMetrics;
+    private final RecentBookingWrites recentBookingWrites;
+    private final BookingTransitionRetry bookingTransitionRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
     @Value("${booking.payment.threshold.minutes}")
     private Integer paymentThreshold;
 
+    @Value("${booking.expiry.chunk.size:500}")
+    private Integer expiryChunkSize;
+
+    @Value("${booking.export.fetch.size:1000}")
+    private Integer exportFetchSize;
+
+    /**
+     * The unit lock is taken before the transaction starts and released after it commits,
+     * so a concurrent request for the same unit always sees this booking in the index.
+     * Cached searches are evicted once the lock is released.
+     */
     @Override
-    @Transactional
     public BookingReadDTO createBooking(BookingCreateDTO bookingCreateDTO) {
+        BookingReadDTO created = unitAdmissionLocks.withUnitLock(bookingCreateDTO.getUnitId(),
+                () -> transactionTemplate.execute(status -> admitBooking(bookingCreateDTO)));
+        unitSearchResultCache.evictForBooking(created.getUnitId(), created.getStartDate(), created.getEndDate());
+        return created;
+    }
+
+    /**
+     * The overlap check, the price lookup and the insert run as one statement, so an admission costs
+     * a single round trip; a missing unit or user surfaces as a foreign key violation of that insert.
+     */
+    private BookingReadDTO admitBooking(BookingCreateDTO bookingCreateDTO) {
         Long unitId = bookingCreateDTO.getUnitId();
+        Long userId = bookingCreateDTO.getUserId();
         Instant startDate = bookingCreateDTO.getStartDate();
         Instant endDate = bookingCreateDTO.getEndDate();
 
         if (!unitService.isUnitAvailable(unitId, startDate, endDate)) {
+            bookingMetrics.unitNotAvailable(BookingMetrics.DETECTED_BY_INDEX);
             throw new UnitIsNotAvailableException("Unit is not available for the selected dates");
         }
 
-        UnitEntity unit = unitRepository.findById(unitId)
-                .orElseThrow(() -> new EntityNotFoundException("Unit not found with id: " + unitId));
+        Instant now = Instant.now();
+        Instant paymentDeadline = now.plus(paymentThreshold, ChronoUnit.MINUTES);
+        AdmittedBooking admitted;
+        try {
+            admitted = saveAdmitted(() -> bookingRepository.insertPendingIfAvailable(unitId, userId,
+                    startDate, endDate, ChronoUnit.DAYS.between(startDate, endDate), now, paymentDeadline))
+                    .orElseThrow(() -> {
+                        // An overlapping booking committed by another node that the index has not seen yet
+                        bookingMetrics.unitNotAvailable(BookingMetrics.DETECTED_BY_QUERY);
+                        return new UnitIsNotAvailableException("Unit is not available for the selected dates");
+                    });
+        } catch (DataIntegrityViolationException ex) {
+            throw missingReference(ex, unitId, userId);
+        }
+
+        AfterCommit.run(unitCacheService::decrementAvailableUnits);
+        registerAdmitted(admitted.getId(), unitId, userId, startDate, endDate, paymentDeadline);
+
+        return new BookingReadDTO(admitted.getId(), unitId, userId, startDate, endDate,
+                admitted.getTotalPrice(), BookingStatus.PENDING, now, now, paymentDeadline);
+    }
+
+    /**
+     * Locks all requested units in stripe order, checks every item against the availability
+     * index and the other items, then inserts the accepted bookings as one JDBC batch.
+     * In {@link BatchMode#BEST_EFFORT} a batch that loses a race against another node is
+     * retried item by item. Cached searches are evicted once for the whole batch, after the locks are released.
+     */
+    @Override
+    public BookingBatchResult createBookings(List<BookingCreateDTO> bookings, BatchMode mode) {
+        List<Long> unitIds = bookings.stream().map(BookingCreateDTO::getUnitId).toList();
+        BookingBatchResult result = unitAdmissionLocks.withUnitLocks(unitIds, () -> {
+            String[] errors = new String[bookings.size()];
+            try {
+                return transactionTemplate.execute(status -> admitBatch(bookings, mode, errors));
+            } catch (UnitIsNotAvailableException ex) {
+                if (mode == BatchMode.ALL_OR_NOTHING) {
+                    Arrays.fill(errors, ex.getMessage());
+                    return toBatchResult(new BookingReadDTO[bookings.size()], errors);
+                }
+                return admitEach(bookings, errors);
+            }
+        });
+        unitSearchResultCache.evictForBookings(result.items().stream()
+                .map(BookingBatchResult.Item::booking)
+                .filter(Objects::nonNull)
+                .map(booking -> new BookedUnit(booking.getUnitId(), booking.getStartDate(), booking.getEndDate()))
+                .toList());
+        return result;
+    }
+
+    private BookingBatchResult admitBatch(List<BookingCreateDTO> requests, BatchMode mode, String[] errors) {
+        Map<Long, UnitEntity> units = unitRepository.findAllById(
+                        requests.stream().map(BookingCreateDTO::getUnitId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(UnitEntity::getId, Function.identity()));
+        Map<Long, UserEntity> users = userRepository.findAllById(
+                        requests.stream().map(BookingCreateDTO::getUserId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+
+        Map<Long, List<BookingCreateDTO>> acceptedByUnit = new HashMap<>();
+        BookingEntity[] accepted = new BookingEntity[requests.size()];
+        boolean anyRejected = false;
+        for (int i = 0; i < requests.size(); i++) {
+            BookingCreateDTO request = requests.get(i);
+            errors[i] = checkBatchItem(request, units, users, acceptedByUnit);
+            if (errors[i] != null) {
+                anyRejected = true;
+                continue;
+            }
+            acceptedByUnit.computeIfAbsent(request.getUnitId(), unitId -> new ArrayList<>()).add(request);
+            accepted[i] = toPendingBooking(request, units.get(request.getUnitId()), users.get(request.getUserId()));
+        }
+
+        BookingReadDTO[] created = new BookingReadDTO[requests.size()];
+        if (mode == BatchMode.ALL_OR_NOTHING && anyRejected) {
+            for (int i = 0; i < errors.length; i++) {
+                if (errors[i] == null) {
+                    errors[i] = "Not created: another booking in the batch was rejected";
+                }
+            }
+            return toBatchResult(created, errors);
+        }
+
+        List<BookingEntity> toSave = Arrays.stream(accepted).filter(Objects::nonNull).toList();
+        saveAdmitted(() -> {
+            bookingRepository.saveAll(toSave);
+            bookingRepository.flush();
+            return toSave;
+        });
 
-        UserEntity user = userRepository.findById(bookingCreateDTO.getUserId())
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + unitId));
+        if (!toSave.isEmpty()) {
+            AfterCommit.run(() -> unitCacheService.adjustAvailableUnits(-toSave.size()));
+        }
+        for (int i = 0; i < accepted.length; i++) {
+            if (accepted[i] != null) {
+                registerAdmitted(accepted[i].getId(), accepted[i].getUnit().getId(), accepted[i].getUser().getId(),
+                        accepted[i].getStartDate(), accepted[i].getEndDate(), accepted[i].getPaymentDeadline());
+                created[i] = bookingMapper.toReadDTO(accepted[i]);
+            }
+        }
+        return toBatchResult(created, errors);
+    }
+
+    private String checkBatchItem(
+            BookingCreateDTO request,
+            Map<Long, UnitEntity> units,
+            Map<Long, UserEntity> users,
+            Map<Long, List<BookingCreateDTO>> acceptedByUnit
+    ) {
+        if (!units.containsKey(request.getUnitId())) {
+            return "Unit not found with id: " + request.getUnitId();
+        }
+        if (!users.containsKey(request.getUserId())) {
+            return "User not found with id: " + request.getUserId();
+        }
+        if (!unitService.isUnitAvailable(request.getUnitId(), request.getStartDate(), request.getEndDate())) {
+            bookingMetrics.unitNotAvailable(BookingMetrics.DETECTED_BY_INDEX);
+            return "Unit is not available for the selected dates";
+        }
+        boolean overlapsBatch = acceptedByUnit.getOrDefault(request.getUnitId(), List.of()).stream()
+                .anyMatch(other -> other.getStartDate().isBefore(request.getEndDate())
+                        && other.getEndDate().isAfter(request.getStartDate()));
+        return overlapsBatch ? "Overlaps another booking of the same unit in this batch" : null;
+    }
+
+    /**
+     * Fallback for a best-effort batch that was rolled back: admit the remaining items one
+     * transaction at a time, so only the conflicting ones are rejected.
+     */
+    private BookingBatchResult admitEach(List<BookingCreateDTO> requests, String[] errors) {
+        BookingReadDTO[] created = new BookingReadDTO[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            BookingCreateDTO request = requests.get(i);
+            try {
+                created[i] = transactionTemplate.execute(status -> admitBooking(request));
+            } catch (UnitIsNotAvailableException | EntityNotFoundException ex) {
+                errors[i] = ex.getMessage();
+            }
+        }
+        return toBatchResult(created, errors);
+    }
+
+    private static BookingBatchResult toBatchResult(BookingReadDTO[] created, String[] errors) {
+        List<BookingBatchResult.Item> items = new ArrayList<>(created.length);
+        int createdCount = 0;
+        for (int i = 0; i < created.length; i++) {
+            if (created[i] != null) {
+                createdCount++;
+            }
+            items.add(new BookingBatchResult.Item(i, created[i], created[i] == null ? errors[i] : null));
+        }
+        return new BookingBatchResult(createdCount, created.length - createdCount, items);
+    }
 
+    private BookingEntity toPendingBooking(BookingCreateDTO bookingCreateDTO, UnitEntity unit, UserEntity user) {
         BookingEntity booking = bookingMapper.toEntity(bookingCreateDTO, unit, user);
         booking.setTotalPrice(calculateTotalPrice(bookingCreateDTO, unit));
         booking.setPaymentDeadline(Instant.now().plus(paymentThreshold, ChronoUnit.MINUTES));
         booking.setStatus(BookingStatus.PENDING);
-        BookingEntity savedBooking = bookingRepository.save(booking);
+        return booking;
+    }
+
+    /**
+     * Make a saved booking visible to the index, the expiry queue, the feed and its creator's reads once it commits.
+     * Cached searches are evicted by the callers holding the unit locks, after releasing them.
+     */
+    private void registerAdmitted(Long bookingId, Long unitId, Long userId, Instant startDate, Instant endDate,
+                                  Instant paymentDeadline) {
+        unitAvailabilityIndex.addBooking(bookingId, unitId, startDate, endDate);
+        bookingExpiryQueue.schedule(bookingId, paymentDeadline);
+        recentBookingWrites.bookingWritten(bookingId, unitId, userId);
+        availabilityEventFeed.bookingChanged(AvailabilityEventType.BOOKING_CREATED,
+                bookingId, unitId, startDate, endDate);
+    }
 
-        unitCacheService.decrementAvailableUnits();
+    private <T> T saveAdmitted(Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getMostSpecificCause() instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                // Another node admitted an overlapping booking between our check and insert
+                bookingMetrics.unitNotAvailable(BookingMetrics.DETECTED_BY_CONSTRAINT);
+                throw new UnitIsNotAvailableException("Unit is not available for the selected dates");
+            }
+            throw ex;
+        }
+    }
 
-        return bookingMapper.toReadDTO(savedBooking);
+    /**
+     * Map a foreign key violation of the admission insert back to the entity that does not exist.
+     */
+    private static RuntimeException missingReference(DataIntegrityViolationException ex, Long unitId, Long userId) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        if (FK_BOOKING_UNIT.equalsIgnoreCase(constraint)) {
+            return new EntityNotFoundException("Unit not found with id: " + unitId);
+        }
+        if (FK_BOOKING_USER.equalsIgnoreCase(constraint)) {
+            return new EntityNotFoundException("User not found with id: " + userId);
+        }
+        return ex;
     }
 
     private BookingEntity getBookingById(Long id) {
@@ -74,58 +353,230 @@ class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new EntityNotFoundException("Booking not found with id: " + id));
     }
 
+    /**
+     * A booking written on this node within the replica lag allowance is read from the primary,
+     * so its creator sees it right after creating, paying or cancelling it.
+     */
     @Override
     @Transactional(readOnly = true)
     public BookingReadDTO getBooking(Long id) {
-        BookingEntity booking = getBookingById(id);
+        BookingEntity booking = recentBookingWrites.readBooking(id, () -> getBookingById(id));
         return bookingMapper.toReadDTO(booking);
     }
 
+    /**
+     * Cancels by compare-and-set on the booking version, so a cancellation racing with a payment or an
+     * expiry either wins cleanly or is retried against the new state.
+     */
     @Override
-    @Transactional
     public BookingReadDTO cancelBooking(Long id) {
+        BookingReadDTO cancelled = bookingTransitionRetry.execute(
+                () -> transactionTemplate.execute(status -> cancelOnce(id)));
+        unitSearchResultCache.evictForBooking(cancelled.getUnitId(), cancelled.getStartDate(), cancelled.getEndDate());
+        return cancelled;
+    }
+
+    private BookingReadDTO cancelOnce(Long id) {
         BookingEntity booking = getBookingById(id);
+        BookingStatus current = booking.getStatus();
 
-        if (booking.getStatus() == BookingStatus.CANCELLED || booking.getStatus() == BookingStatus.EXPIRED) {
+        if (current == BookingStatus.CANCELLED || current == BookingStatus.EXPIRED) {
+            bookingMetrics.illegalTransition("cancel", current);
             throw new IllegalStateEntityException("Booking is already cancelled or expired");
         }
 
+        Long unitId = booking.getUnit().getId();
+        Long userId = booking.getUser().getId();
+        Instant now = Instant.now();
+        if (bookingRepository.transition(id, booking.getVersion(), current, BookingStatus.CANCELLED, now) == 0) {
+            throw new ObjectOptimisticLockingFailureException(BookingEntity.class, id);
+        }
+        // The update cleared the persistence context; the detached copy only feeds the response
         booking.cancel();
-        BookingEntity updatedEntity = bookingRepository.save(booking);
+        booking.setVersion(booking.getVersion() + 1);
+        booking.setUpdatedAt(now);
 
-        unitCacheService.incrementAvailableUnits();
+        AfterCommit.run(unitCacheService::incrementAvailableUnits);
+        unitAvailabilityIndex.removeBooking(id, unitId);
+        bookingExpiryQueue.cancel(id);
+        recentBookingWrites.bookingWritten(id, unitId, userId);
+        availabilityEventFeed.bookingChanged(AvailabilityEventType.BOOKING_CANCELLED, id,
+                unitId, booking.getStartDate(), booking.getEndDate());
 
-        return bookingMapper.toReadDTO(updatedEntity);
+        return bookingMapper.toReadDTO(booking);
     }
 
+    /**
+     * Listings of a user or unit with a booking written recently on this node come from the primary.
+     */
     @Override
     @Transactional(readOnly = true)
     public Page<BookingReadDTO> findByUserId(Long userId, Pageable pageable) {
-        Page<BookingEntity> bookingsPage = bookingRepository.findByUserId(userId, pageable);
-        return bookingsPage.map(bookingMapper::toReadDTO);
+        return recentBookingWrites.readUserBookings(userId, () -> bookingRepository.findByUserId(userId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<BookingReadDTO> findByUnitId(Long unitId, Pageable pageable) {
-        Page<BookingEntity> bookingsPage = bookingRepository.findByUnitId(unitId, pageable);
-        return bookingsPage.map(bookingMapper::toReadDTO);
+        return recentBookingWrites.readUnitBookings(unitId, () -> bookingRepository.findByUnitId(unitId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<BookingReadDTO> findByUserId(Long userId, String cursor, Pageable pageable) {
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor, pageable.getSort());
+        return recentBookingWrites.readUserBookings(userId,
+                () -> bookingRepository.findByUserIdAfter(userId, keysetCursor, pageable.getPageSize()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<BookingReadDTO> findByUnitId(Long unitId, String cursor, Pageable pageable) {
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor, pageable.getSort());
+        return recentBookingWrites.readUnitBookings(unitId,
+                () -> bookingRepository.findByUnitIdAfter(unitId, keysetCursor, pageable.getPageSize()));
+    }
+
+    /**
+     * Runs the export in its own read-only transaction on the thread that writes the response,
+     * which the Postgres driver needs to honour the fetch size instead of buffering every row.
+     * A client that disconnects mid-export only ends the stream: the cursor is closed and the
+     * connection returned to the pool. An accepted export holds one of {@link BookingExportPermits}
+     * until its body finishes; when none is left the request is rejected before anything is streamed.
+     */
+    @Override
+    public StreamingResponseBody exportBookings(BookingExportFilter filter, ExportFormat format) {
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            throw new InvalidDateRangeException("Export period start must be before its end");
+        }
+        if (filter.unitId() != null && !unitRepository.existsById(filter.unitId())) {
+            throw new EntityNotFoundException("Unit not found with id: " + filter.unitId());
+        }
+        if (filter.userId() != null && !userRepository.existsById(filter.userId())) {
+            throw new EntityNotFoundException("User not found with id: " + filter.userId());
+        }
+
+        bookingExportPermits.acquire();
+        return out -> {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnlyTransaction.setReadOnly(true);
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> writeExport(filter, format, out));
+            } catch (UncheckedIOException ex) {
+                log.debug("Booking export aborted: {}", ex.getMessage());
+            } finally {
+                bookingExportPermits.release();
+            }
+        };
+    }
+
+    private void writeExport(BookingExportFilter filter, ExportFormat format, OutputStream out) {
+        try (Stream<BookingReadDTO> bookings = bookingRepository.streamForExport(filter, exportFetchSize)) {
+            Iterator<BookingReadDTO> iterator = bookings.iterator();
+            switch (format) {
+                case NDJSON -> writeNdjson(iterator, out);
+                case CSV -> writeCsv(iterator, out);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeNdjson(Iterator<BookingReadDTO> bookings, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookingReadDTO.class);
+        while (bookings.hasNext()) {
+            out.write(writer.writeValueAsBytes(bookings.next()));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static void writeCsv(Iterator<BookingReadDTO> bookings, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        while (bookings.hasNext()) {
+            BookingReadDTO booking = bookings.next();
+            // Every column is a number, an enum or an ISO instant, so nothing needs quoting
+            writer.write(Stream.of(booking.getId(), booking.getUnitId(), booking.getUserId(),
+                            booking.getStartDate(), booking.getEndDate(), booking.getTotalPrice(),
+                            booking.getStatus(), booking.getCreatedAt(), booking.getUpdatedAt(),
+                            booking.getPaymentDeadline())
+                    .map(value -> value == null ? "" : value.toString())
+                    .collect(Collectors.joining(",", "", "\n")));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Expires overdue bookings in chunks of {@code booking.expiry.chunk.size}, each in its own
+     * transaction, so a large backlog never holds one long transaction or loads every row at once.
+     */
+    @Override
+    public int processExpiredBookings() {
+        Instant now = Instant.now();
+        int totalExpired = 0;
+        List<ExpiredBooking> expired;
+        do {
+            expired = transactionTemplate.execute(status -> expireChunk(now));
+            if (!expired.isEmpty()) {
+                unitCacheService.adjustAvailableUnits(expired.size());
+                evictExpiredSearches(expired);
+            }
+            totalExpired += expired.size();
+        } while (!expired.isEmpty());
+        return totalExpired;
+    }
+
+    private List<ExpiredBooking> expireChunk(Instant now) {
+        List<ExpiredBooking> expiredBookings = bookingRepository.expireOverdueBookings(now, expiryChunkSize);
+        releaseExpired(expiredBookings);
+        return expiredBookings;
     }
 
+    /**
+     * Expire specific bookings whose deadline has come due; bookings that were paid
+     * or cancelled in the meantime are left untouched by the status guard of the update.
+     */
     @Override
-    @Transactional
-    public void processExpiredBookings() {
-        List<BookingEntity> expiredBookings = bookingRepository.findExpiredBookings(Instant.now());
+    public int expireBookings(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        List<ExpiredBooking> expired = transactionTemplate.execute(status -> {
+            List<ExpiredBooking> expiredBookings = bookingRepository.expireBookings(bookingIds, Instant.now());
+            releaseExpired(expiredBookings);
+            return expiredBookings;
+        });
+        if (!expired.isEmpty()) {
+            unitCacheService.adjustAvailableUnits(expired.size());
+            evictExpiredSearches(expired);
+        }
+        return expired.size();
+    }
 
-        for (BookingEntity booking : expiredBookings) {
-            booking.markAsExpired();
-            bookingRepository.save(booking);
+    private void releaseExpired(List<ExpiredBooking> expiredBookings) {
+        for (ExpiredBooking booking : expiredBookings) {
+            unitAvailabilityIndex.removeBooking(booking.getId(), booking.getUnitId());
+            bookingExpiryQueue.cancel(booking.getId());
+            recentBookingWrites.bookingWritten(booking.getId(), booking.getUnitId(), booking.getUserId());
+            availabilityEventFeed.bookingChanged(AvailabilityEventType.BOOKING_EXPIRED,
+                    booking.getId(), booking.getUnitId(), null, null);
         }
+    }
 
-        unitCacheService.rebuildCache();
+    /**
+     * Drop the cached searches of units whose bookings expired, once per chunk after it commits.
+     * The expiry does not return the booked periods, so every date-filtered search of the units is affected.
+     */
+    private void evictExpiredSearches(List<ExpiredBooking> expiredBookings) {
+        unitSearchResultCache.evictForBookings(expiredBookings.stream()
+                .map(ExpiredBooking::getUnitId)
+                .distinct()
+                .map(unitId -> new BookedUnit(unitId, null, null))
+                .toList());
     }
 
-    private BigDecimal calculateTotalPrice(
+    static BigDecimal calculateTotalPrice(
             BookingCreateDTO bookingDTO,
             UnitEntity unitEntity
     ) {
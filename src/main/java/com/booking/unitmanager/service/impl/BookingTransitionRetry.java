@@ -0,0 +1,51 @@
+package com.booking.unitmanager.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry for booking state transitions that lost a compare-and-set race. Each attempt must run
+ * in its own transaction and re-read the booking, so a transition that has become illegal meanwhile
+ * fails with its usual error instead of being retried.
+ */
+@Slf4j
+@Component
+class BookingTransitionRetry {
+
+    @Value("${booking.transition.max.attempts:3}")
+    private int maxAttempts;
+
+    @Value("${booking.transition.backoff.millis:5}")
+    private long backoffMillis;
+
+    <T> T execute(Supplier<T> attempt) {
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attemptNumber >= maxAttempts) {
+                    throw ex;
+                }
+                log.debug("Booking transition conflicted on attempt {}, retrying: {}", attemptNumber, ex.getMessage());
+                backOff(attemptNumber, ex);
+            }
+        }
+    }
+
+    /**
+     * Linear backoff with full jitter, so transitions that collided once do not collide again in lockstep.
+     */
+    private void backOff(int attemptNumber, OptimisticLockingFailureException cause) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attemptNumber + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
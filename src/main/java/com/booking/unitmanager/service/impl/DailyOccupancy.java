@@ -0,0 +1,108 @@
+package com.booking.unitmanager.service.impl;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Ring of per-day occupied unit counts covering {@code horizonDays} calendar days from today.
+ * A slot is computed from the full index the first time its day is read and then kept up
+ * to date from interval changes; slots that roll over to a new day are recomputed lazily.
+ * Not thread-safe: callers guard it with the index lock.
+ */
+final class DailyOccupancy {
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final int horizonDays;
+    private final ZoneId zone;
+    private final long[] occupied;
+    private final long[] slotDays;
+
+    DailyOccupancy(int horizonDays, ZoneId zone) {
+        this.horizonDays = horizonDays;
+        this.zone = zone;
+        this.occupied = new long[horizonDays];
+        this.slotDays = new long[horizonDays];
+        reset();
+    }
+
+    void reset() {
+        Arrays.fill(slotDays, UNSET);
+    }
+
+    /**
+     * Apply the difference between two states of one unit, limited to the days
+     * touched by {@code [fromSecond, toSecond)}.
+     */
+    void apply(UnitIntervals before, UnitIntervals after, long fromSecond, long toSecond) {
+        long today = today();
+        long firstDay = Math.max(today, epochDayOf(fromSecond));
+        long lastDay = Math.min(today + horizonDays - 1, epochDayOf(toSecond - 1));
+        for (long day = firstDay; day <= lastDay; day++) {
+            int slot = slot(day);
+            if (slotDays[slot] != day) {
+                continue;
+            }
+            boolean wasOccupied = isOccupied(before, day);
+            boolean nowOccupied = isOccupied(after, day);
+            if (wasOccupied != nowOccupied) {
+                occupied[slot] += nowOccupied ? 1 : -1;
+            }
+        }
+    }
+
+    /**
+     * Apply the difference between two states of one unit over the whole horizon.
+     */
+    void applyAll(UnitIntervals before, UnitIntervals after) {
+        long today = today();
+        apply(before, after, dayStart(today), dayStart(today + horizonDays));
+    }
+
+    long occupiedOn(LocalDate date, Collection<UnitIntervals> units) {
+        long day = date.toEpochDay();
+        long today = today();
+        if (day < today || day >= today + horizonDays) {
+            return countOccupied(day, units);
+        }
+        int slot = slot(day);
+        if (slotDays[slot] != day) {
+            occupied[slot] = countOccupied(day, units);
+            slotDays[slot] = day;
+        }
+        return occupied[slot];
+    }
+
+    private long countOccupied(long day, Collection<UnitIntervals> units) {
+        long count = 0;
+        for (UnitIntervals intervals : units) {
+            if (isOccupied(intervals, day)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isOccupied(UnitIntervals intervals, long day) {
+        return intervals.overlaps(dayStart(day), dayStart(day + 1));
+    }
+
+    private long dayStart(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toEpochSecond();
+    }
+
+    private long epochDayOf(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    private long today() {
+        return LocalDate.now(zone).toEpochDay();
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) horizonDays);
+    }
+}
@@ -0,0 +1,177 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.dto.AvailabilityEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One SSE subscriber of the availability feed, drained by its own virtual thread so a slow
+ * client never delays the publisher or other subscribers.
+ * <p>
+ * Events wait {@code coalesce} after the first one of a burst, and a newer event for the same
+ * unit and booking replaces the pending one. At most {@code maxPending} events are buffered:
+ * a client that falls further behind has its backlog dropped and receives a {@code reset} event.
+ */
+@Slf4j
+final class FeedSubscription {
+
+    private static final String RESET_EVENT = "reset";
+
+    private final SseEmitter emitter;
+    private final Set<Long> unitIds;
+    private final int maxPending;
+    private final long coalesceNanos;
+    private final long heartbeatNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<EventKey, AvailabilityEventDTO> pending = new LinkedHashMap<>();
+    private boolean resetRequested;
+    private boolean closed;
+
+    FeedSubscription(SseEmitter emitter, Set<Long> unitIds, int maxPending, Duration coalesce, Duration heartbeat) {
+        this.emitter = emitter;
+        this.unitIds = unitIds == null ? Set.of() : Set.copyOf(unitIds);
+        this.maxPending = maxPending;
+        this.coalesceNanos = coalesce.toNanos();
+        this.heartbeatNanos = heartbeat.toNanos();
+    }
+
+    void start() {
+        Thread.ofVirtual().name("availability-feed").start(this::run);
+    }
+
+    void offer(AvailabilityEventDTO event) {
+        if (!unitIds.isEmpty() && !concernsSubscribedUnit(event)) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            EventKey key = new EventKey(event.unitId(), event.bookingId());
+            // Re-inserting keeps the pending events in id order
+            pending.remove(key);
+            pending.put(key, event);
+            if (pending.size() > maxPending) {
+                pending.clear();
+                resetRequested = true;
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean concernsSubscribedUnit(AvailabilityEventDTO event) {
+        if (event.lastUnitId() == null) {
+            return unitIds.contains(event.unitId());
+        }
+        return unitIds.stream().anyMatch(unitId -> unitId >= event.unitId() && unitId <= event.lastUnitId());
+    }
+
+    void requestReset() {
+        lock.lock();
+        try {
+            resetRequested = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pending.clear();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void complete() {
+        close();
+        emitter.complete();
+    }
+
+    private void run() {
+        try {
+            Batch batch;
+            while ((batch = awaitBatch()) != null) {
+                if (batch.reset()) {
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data(""));
+                }
+                for (AvailabilityEventDTO event : batch.events()) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.id()))
+                            .name(event.type().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (batch.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away or the emitter already completed; the container reports it to the feed
+            log.debug("Availability feed subscriber disconnected: {}", ex.getMessage());
+            close();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            close();
+        }
+    }
+
+    /**
+     * Wait for the next burst to settle and take it, or return an empty batch when a heartbeat is due.
+     * Returns {@code null} once the subscription is closed.
+     */
+    private Batch awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            long heartbeatLeft = heartbeatNanos;
+            while (!closed && pending.isEmpty() && !resetRequested) {
+                if (heartbeatLeft <= 0) {
+                    return new Batch(false, List.of());
+                }
+                heartbeatLeft = changed.awaitNanos(heartbeatLeft);
+            }
+            long coalesceLeft = coalesceNanos;
+            while (!closed && coalesceLeft > 0) {
+                coalesceLeft = changed.awaitNanos(coalesceLeft);
+            }
+            if (closed) {
+                return null;
+            }
+            Batch batch = new Batch(resetRequested, new ArrayList<>(pending.values()));
+            pending.clear();
+            resetRequested = false;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record EventKey(Long unitId, Long bookingId) {
+    }
+
+    private record Batch(boolean reset, List<AvailabilityEventDTO> events) {
+
+        boolean isEmpty() {
+            return !reset && events.isEmpty();
+        }
+    }
+}
@@ -5,44 +5,81 @@ import com.booking.unitmanager.exception.IllegalStateEntityException;
 import com.booking.unitmanager.mapper.PaymentMapper;
 import com.booking.unitmanager.model.entity.BookingEntity;
 import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.model.enums.AvailabilityEventType;
+import com.booking.unitmanager.model.enums.BookingStatus;
 import com.booking.unitmanager.model.enums.PaymentStatus;
 import com.booking.unitmanager.model.entity.PaymentEntity;
 import com.booking.unitmanager.dao.PaymentRepository;
 import com.booking.unitmanager.model.dto.PaymentCreateDTO;
 import com.booking.unitmanager.model.dto.PaymentReadDTO;
 import com.booking.unitmanager.service.PaymentService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "payment.service", histogram = true)
 class PaymentServiceImpl implements PaymentService {
 
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
+    private final BookingExpiryQueue bookingExpiryQueue;
+    private final AvailabilityEventFeed availabilityEventFeed;
+    private final BookingMetrics bookingMetrics;
+    private final RecentBookingWrites recentBookingWrites;
+    private final BookingTransitionRetry bookingTransitionRetry;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Marks the booking paid by compare-and-set on its version, so a payment racing with a cancellation
+     * or an expiry is retried against the new state and then rejected, instead of overwriting it.
+     */
     @Override
     public PaymentReadDTO createPayment(PaymentCreateDTO paymentCreateDTO) {
+        return bookingTransitionRetry.execute(() -> transactionTemplate.execute(status -> payOnce(paymentCreateDTO)));
+    }
+
+    private PaymentReadDTO payOnce(PaymentCreateDTO paymentCreateDTO) {
         BookingEntity booking = getBookingById(paymentCreateDTO.getBookingId());
 
         if (!booking.isAvailableStatusToPay()) {
+            bookingMetrics.illegalTransition("pay", booking.getStatus());
             throw new IllegalStateEntityException("Booking cannot be paid in its current state");
         }
         if (booking.isPaymentDeadlinePassed()) {
+            bookingMetrics.illegalTransition("pay", booking.getStatus());
             throw new IllegalStateEntityException("Payment deadline has passed");
         }
 
+        Long unitId = booking.getUnit().getId();
+        Long userId = booking.getUser().getId();
+        Instant now = Instant.now();
+        int paid = bookingRepository.transition(booking.getId(), booking.getVersion(),
+                BookingStatus.PENDING, BookingStatus.PAID, now);
+        if (paid == 0) {
+            throw new ObjectOptimisticLockingFailureException(BookingEntity.class, booking.getId());
+        }
+        // The update cleared the persistence context; the detached copy is only referenced and returned
+        booking.markAsPaid();
+        booking.setVersion(booking.getVersion() + 1);
+        booking.setUpdatedAt(now);
+
         PaymentEntity paymentEntity = new PaymentEntity();
         paymentEntity.setAmount(paymentCreateDTO.getAmount());
         paymentEntity.setBooking(booking);
         paymentEntity.setStatus(PaymentStatus.COMPLETED);
         PaymentEntity createdPayment = paymentRepository.save(paymentEntity);
 
-        booking.markAsPaid();
-        bookingRepository.save(booking);
+        bookingExpiryQueue.cancel(booking.getId());
+        recentBookingWrites.bookingWritten(booking.getId(), unitId, userId);
+        availabilityEventFeed.bookingChanged(AvailabilityEventType.BOOKING_PAID, booking.getId(),
+                unitId, booking.getStartDate(), booking.getEndDate());
         return paymentMapper.toReadDTO(createdPayment);
     }
 
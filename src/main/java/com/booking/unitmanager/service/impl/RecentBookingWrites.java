@@ -0,0 +1,75 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.config.ReadRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for bookings: bookings written on this node, and the users and units they belong to,
+ * are remembered until every replica still in rotation must have replayed the write. Reads of those
+ * go to the primary, all others may be served by a replica.
+ * <p>
+ * A replica stays in rotation while it was at most {@code datasource.replica.max.lag.seconds} behind
+ * at its last lag check, so a write is on it at the latest that long plus one check interval after
+ * committing. A write is remembered when made and again once it commits. Writes made on other nodes
+ * are not known here, so a client reading its own writes must stick to one node.
+ */
+@Component
+class RecentBookingWrites {
+
+    private static final int MAX_REMEMBERED = 100_000;
+
+    private final Cache<WrittenKey, Boolean> written;
+
+    RecentBookingWrites(
+            @Value("${datasource.replica.max.lag.seconds:5}") long maxLagSeconds,
+            @Value("${datasource.replica.check.millis:1000}") long checkMillis
+    ) {
+        this.written = Caffeine.newBuilder()
+                .maximumSize(MAX_REMEMBERED)
+                .expireAfterWrite(Duration.ofSeconds(maxLagSeconds).plusMillis(checkMillis))
+                .build();
+    }
+
+    /**
+     * Booking {@code bookingId} of unit {@code unitId} and user {@code userId} is being created or changed.
+     */
+    void bookingWritten(Long bookingId, Long unitId, Long userId) {
+        remember(bookingId, unitId, userId);
+        AfterCommit.run(() -> remember(bookingId, unitId, userId));
+    }
+
+    <T> T readBooking(Long bookingId, Supplier<T> read) {
+        return route(new WrittenKey(Kind.BOOKING, bookingId), read);
+    }
+
+    <T> T readUnitBookings(Long unitId, Supplier<T> read) {
+        return route(new WrittenKey(Kind.UNIT, unitId), read);
+    }
+
+    <T> T readUserBookings(Long userId, Supplier<T> read) {
+        return route(new WrittenKey(Kind.USER, userId), read);
+    }
+
+    private <T> T route(WrittenKey key, Supplier<T> read) {
+        return written.getIfPresent(key) != null ? ReadRouting.onPrimary(read) : read.get();
+    }
+
+    private void remember(Long bookingId, Long unitId, Long userId) {
+        written.put(new WrittenKey(Kind.BOOKING, bookingId), Boolean.TRUE);
+        written.put(new WrittenKey(Kind.UNIT, unitId), Boolean.TRUE);
+        written.put(new WrittenKey(Kind.USER, userId), Boolean.TRUE);
+    }
+
+    private enum Kind {
+        BOOKING, UNIT, USER
+    }
+
+    private record WrittenKey(Kind kind, Long id) {
+    }
+}
@@ -0,0 +1,303 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.config.ReadRouting;
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.model.projection.BookingInterval;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process index of active (PENDING/PAID) booking intervals per unit.
+ * Availability checks are answered from memory; the bookings table is only read
+ * on startup and on {@link #rebuild()}.
+ * <p>
+ * The index also keeps a per-day histogram of occupied units for the configured
+ * horizon, so date-bucketed availability counts are answered without a query.
+ * Writers are serialized by a single lock that covers both structures;
+ * {@link #isAvailable} stays lock-free.
+ * <p>
+ * A rebuild reads the database without holding that lock, so booking changes committed
+ * meanwhile are journaled and replayed onto the reloaded snapshot instead of being lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnitAvailabilityIndex {
+
+    /**
+     * Upper bound on the number of days a single count request may span.
+     */
+    public static final int MAX_COUNT_DAYS = 366;
+
+    private final BookingRepository bookingRepository;
+    private final UnitRepository unitRepository;
+
+    private final ConcurrentMap<Long, UnitIntervals> intervalsByUnit = new ConcurrentHashMap<>();
+    private final ReentrantLock mutationLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Booking changes applied since the running rebuild started reading, or {@code null} when no
+     * rebuild is running. Guarded by {@link #mutationLock}.
+     */
+    private List<Runnable> rebuildJournal;
+
+    @Value("${unit.availability.horizon.days:365}")
+    private int horizonDays;
+
+    private DailyOccupancy dailyOccupancy;
+    private long totalUnits;
+
+    @PostConstruct
+    public void initializeIndex() {
+        log.info("Initializing unit availability index");
+        dailyOccupancy = new DailyOccupancy(horizonDays, ZoneId.systemDefault());
+        rebuild();
+    }
+
+    public boolean isAvailable(Long unitId, Instant startDate, Instant endDate) {
+        UnitIntervals intervals = intervalsByUnit.get(unitId);
+        return intervals == null || !intervals.overlaps(toStartSecond(startDate), toEndSecond(endDate));
+    }
+
+    /**
+     * The given units that have no active booking overlapping the period, in iteration order.
+     */
+    public List<Long> availableAmong(Collection<Long> unitIds, Instant startDate, Instant endDate) {
+        long start = toStartSecond(startDate);
+        long end = toEndSecond(endDate);
+        List<Long> available = new ArrayList<>(unitIds.size());
+        for (Long unitId : unitIds) {
+            UnitIntervals intervals = intervalsByUnit.get(unitId);
+            if (intervals == null || !intervals.overlaps(start, end)) {
+                available.add(unitId);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Register a new active booking once the current transaction commits.
+     */
+    public void addBooking(Long bookingId, Long unitId, Instant startDate, Instant endDate) {
+        long start = toStartSecond(startDate);
+        long end = toEndSecond(endDate);
+        AfterCommit.run(() -> mutate(() -> journaled(() -> applyAdd(bookingId, unitId, start, end))));
+    }
+
+    /**
+     * Drop a booking that is no longer active once the current transaction commits.
+     */
+    public void removeBooking(Long bookingId, Long unitId) {
+        AfterCommit.run(() -> mutate(() -> journaled(() -> applyRemove(bookingId, unitId))));
+    }
+
+    /**
+     * Count newly created units once the current transaction commits.
+     */
+    public void registerUnits(int count) {
+        AfterCommit.run(() -> mutate(() -> totalUnits += count));
+    }
+
+    public void removeUnit(Long unitId) {
+        AfterCommit.run(() -> mutate(() -> {
+            journaled(() -> {
+                UnitIntervals before = intervalsByUnit.remove(unitId);
+                if (before != null) {
+                    dailyOccupancy.applyAll(before, UnitIntervals.EMPTY);
+                }
+            });
+            totalUnits = Math.max(0, totalUnits - 1);
+        }));
+    }
+
+    /**
+     * Days of {@code [from, from + days)} (system time zone) on which the unit has an
+     * active booking; bit {@code i} stands for {@code from + i}. Lock-free like {@link #isAvailable}.
+     */
+    public BitSet occupiedDays(Long unitId, LocalDate from, int days) {
+        BitSet occupied = new BitSet(days);
+        UnitIntervals intervals = intervalsByUnit.get(unitId);
+        if (intervals == null) {
+            return occupied;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        long dayStart = from.atStartOfDay(zone).toEpochSecond();
+        for (int i = 0; i < days; i++) {
+            long nextDayStart = from.plusDays(i + 1L).atStartOfDay(zone).toEpochSecond();
+            if (intervals.overlaps(dayStart, nextDayStart)) {
+                occupied.set(i);
+            }
+            dayStart = nextDayStart;
+        }
+        return occupied;
+    }
+
+    /**
+     * Number of units with no active booking on each calendar day
+     * (system time zone) of {@code [from, from + days)}.
+     */
+    public Map<LocalDate, Long> countAvailableUnitsByDay(LocalDate from, int days) {
+        int span = Math.clamp(days, 1, MAX_COUNT_DAYS);
+        Map<LocalDate, Long> counts = new LinkedHashMap<>();
+        mutationLock.lock();
+        try {
+            for (int i = 0; i < span; i++) {
+                LocalDate date = from.plusDays(i);
+                long occupied = dailyOccupancy.occupiedOn(date, intervalsByUnit.values());
+                counts.put(date, Math.max(0, totalUnits - occupied));
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+        return counts;
+    }
+
+    /**
+     * Reload all active intervals from the database.
+     * Units are swapped one by one, so concurrent readers never observe an empty index.
+     * The journal is opened before the read: a change whose after-commit callback comes later
+     * may or may not be in the snapshot, and replaying it is harmless either way.
+     * The snapshot is read from the primary: one from a lagging replica would keep cancelled
+     * bookings and reject free dates until the next rebuild.
+     *
+     * @return number of active intervals loaded
+     */
+    public int rebuild() {
+        rebuildLock.lock();
+        try {
+            mutate(() -> rebuildJournal = new ArrayList<>());
+            List<BookingInterval> activeIntervals;
+            long unitCount;
+            try {
+                activeIntervals = ReadRouting.onPrimary(bookingRepository::findActiveBookingIntervals);
+                unitCount = ReadRouting.onPrimary(unitRepository::count);
+            } catch (RuntimeException ex) {
+                mutate(() -> rebuildJournal = null);
+                throw ex;
+            }
+
+            Map<Long, List<BookingInterval>> byUnit = new HashMap<>();
+            for (BookingInterval interval : activeIntervals) {
+                byUnit.computeIfAbsent(interval.unitId(), id -> new ArrayList<>()).add(interval);
+            }
+
+            int replayed = withMutationLock(() -> {
+                byUnit.forEach((unitId, intervals) -> intervalsByUnit.put(unitId, toUnitIntervals(intervals)));
+                intervalsByUnit.keySet().retainAll(byUnit.keySet());
+                totalUnits = unitCount;
+                dailyOccupancy.reset();
+                List<Runnable> journal = rebuildJournal;
+                rebuildJournal = null;
+                journal.forEach(Runnable::run);
+                return journal.size();
+            });
+
+            log.info("Availability index rebuilt with {} intervals across {} units, {} concurrent changes replayed",
+                    activeIntervals.size(), byUnit.size(), replayed);
+            return activeIntervals.size();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Apply a booking change now and, during a rebuild, record it for replay. Called with the lock held.
+     */
+    private void journaled(Runnable change) {
+        change.run();
+        if (rebuildJournal != null) {
+            rebuildJournal.add(change);
+        }
+    }
+
+    /**
+     * Idempotent, so a replayed change that the rebuild already read is a no-op.
+     */
+    private void applyAdd(Long bookingId, Long unitId, long start, long end) {
+        UnitIntervals before = intervalsByUnit.getOrDefault(unitId, UnitIntervals.EMPTY);
+        if (before.startOf(bookingId) >= 0) {
+            return;
+        }
+        UnitIntervals after = before.with(bookingId, start, end);
+        intervalsByUnit.put(unitId, after);
+        dailyOccupancy.apply(before, after, start, end);
+    }
+
+    private void applyRemove(Long bookingId, Long unitId) {
+        UnitIntervals before = intervalsByUnit.get(unitId);
+        if (before == null || before.startOf(bookingId) < 0) {
+            return;
+        }
+        long start = before.startOf(bookingId);
+        long end = before.endOf(bookingId);
+        UnitIntervals after = before.without(bookingId);
+        if (after.isEmpty()) {
+            intervalsByUnit.remove(unitId);
+        } else {
+            intervalsByUnit.put(unitId, after);
+        }
+        dailyOccupancy.apply(before, after, start, end);
+    }
+
+    private void mutate(Runnable mutation) {
+        withMutationLock(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private <T> T withMutationLock(Supplier<T> mutation) {
+        mutationLock.lock();
+        try {
+            return mutation.get();
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    private static UnitIntervals toUnitIntervals(List<BookingInterval> intervals) {
+        int size = intervals.size();
+        long[] bookingIds = new long[size];
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        for (int i = 0; i < size; i++) {
+            BookingInterval interval = intervals.get(i);
+            bookingIds[i] = interval.id();
+            starts[i] = toStartSecond(interval.startDate());
+            ends[i] = toEndSecond(interval.endDate());
+        }
+        return UnitIntervals.of(bookingIds, starts, ends);
+    }
+
+    /**
+     * Interval bounds are widened to whole seconds (start down, end up),
+     * so truncation can only ever report a unit as busy, never as free.
+     */
+    static long toStartSecond(Instant instant) {
+        return instant.getEpochSecond();
+    }
+
+    static long toEndSecond(Instant instant) {
+        return instant.getNano() == 0 ? instant.getEpochSecond() : instant.getEpochSecond() + 1;
+    }
+}
@@ -1,25 +1,67 @@
 package com.booking.unitmanager.service.impl;
 
+import com.booking.unitmanager.config.ReadRouting;
 import com.booking.unitmanager.dao.UnitRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UnitCacheService {
+public class UnitCacheService implements MeterBinder {
 
     private static final String AVAILABLE_UNITS_KEY = "available_units";
 
+    /**
+     * INCRBY only when the counter exists, so a missing key is never silently
+     * recreated from zero; returns nil when the key has to be seeded first.
+     */
+    private static final RedisScript<Long> ADJUST_IF_PRESENT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return redis.call('INCRBY', KEYS[1], ARGV[1])
+            end
+            return false
+            """, Long.class);
+
     private final RedisTemplate<String, Long> redisTemplate;
     private final UnitRepository unitRepository;
 
+    private final AtomicReference<CompletableFuture<Long>> inFlightRecount = new AtomicReference<>();
+
+    /**
+     * Cached minus recounted value, as seen by the last rebuild.
+     */
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    /**
+     * The counter gauge reads Redis on every scrape; drift is only known at rebuild time,
+     * since recounting on every scrape would put a query behind the metrics endpoint.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("unit.cache.available.units", this, UnitCacheService::cachedCountOrNaN)
+                .description("Available units counter in Redis")
+                .register(registry);
+        Gauge.builder("unit.cache.available.units.drift", lastDrift, AtomicLong::get)
+                .description("Redis counter minus the database count at the last cache rebuild")
+                .register(registry);
+    }
+
     @PostConstruct
     public void initializeCache() {
         log.info("Initializing unit availability cache");
@@ -27,46 +69,99 @@ public class UnitCacheService {
     }
 
     public Long getAvailableUnitsCount() {
-        Number countObj = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
-        if (countObj != null) {
-            return countObj.longValue();
+        Long count = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
+        if (count != null) {
+            return count;
         }
-
-        Long count = countAvailableUnits();
-        updateAvailableUnitsCount(count);
-        return count;
+        return seedAvailableUnitsCount();
     }
 
     public void incrementAvailableUnits() {
-        Long currentCount = getAvailableUnitsCount();
-        updateAvailableUnitsCount(currentCount + 1);
+        adjustAvailableUnits(1);
     }
 
     public void decrementAvailableUnits() {
-        Long currentCount = getAvailableUnitsCount();
-        updateAvailableUnitsCount(currentCount - 1);
+        adjustAvailableUnits(-1);
     }
 
-    private void updateAvailableUnitsCount(Long count) {
-        redisTemplate.opsForValue().set(AVAILABLE_UNITS_KEY, count);
+    /**
+     * Atomically shift the counter by {@code delta} in a single round trip.
+     */
+    public void adjustAvailableUnits(long delta) {
+        Long updated = redisTemplate.execute(ADJUST_IF_PRESENT, List.of(AVAILABLE_UNITS_KEY), delta);
+        if (updated == null) {
+            seedAvailableUnitsCount();
+            redisTemplate.opsForValue().increment(AVAILABLE_UNITS_KEY, delta);
+        }
     }
 
     /**
-     * Recalculate the number of available units from the database.
+     * Seed a missing counter without overwriting a value another node wrote meanwhile.
+     */
+    private Long seedAvailableUnitsCount() {
+        Long count = recountOnce();
+        redisTemplate.opsForValue().setIfAbsent(AVAILABLE_UNITS_KEY, count);
+        Long current = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
+        return current != null ? current : count;
+    }
+
+    /**
+     * Single-flight recount: a burst of cache misses shares one query against the database.
+     */
+    private Long recountOnce() {
+        CompletableFuture<Long> recount = new CompletableFuture<>();
+        CompletableFuture<Long> inFlight = inFlightRecount.compareAndExchange(null, recount);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+        try {
+            Long count = countAvailableUnits();
+            recount.complete(count);
+            return count;
+        } catch (RuntimeException ex) {
+            recount.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightRecount.set(null);
+        }
+    }
+
+    /**
+     * Recalculate the number of available units from the primary; the counter is then kept by
+     * increments, so a count behind by a replica's lag would stay off until the next rebuild.
      */
     public Long countAvailableUnits() {
         Instant now = Instant.now();
-        return unitRepository.countAvailableUnits(now, now.plus(1, ChronoUnit.DAYS));
+        return ReadRouting.onPrimary(() -> unitRepository.countAvailableUnits(now, now.plus(1, ChronoUnit.DAYS)));
     }
 
     /**
      * Rebuild the cache from the database.
      * This can be called to recover from a system crash.
+     *
+     * @return the recounted number of available units
      */
-    public void rebuildCache() {
+    public Long rebuildCache() {
         log.info("Rebuilding unit availability cache");
+        Long cached = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
         Long availableUnits = countAvailableUnits();
-        updateAvailableUnitsCount(availableUnits);
+        redisTemplate.opsForValue().set(AVAILABLE_UNITS_KEY, availableUnits);
+        if (cached != null) {
+            lastDrift.set(cached - availableUnits);
+            if (cached.longValue() != availableUnits) {
+                log.warn("Available units counter drifted by {} from the database", cached - availableUnits);
+            }
+        }
         log.info("Cache rebuilt with {} available units", availableUnits);
+        return availableUnits;
+    }
+
+    private double cachedCountOrNaN() {
+        try {
+            Long count = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
+            return count != null ? count : Double.NaN;
+        } catch (RuntimeException ex) {
+            return Double.NaN;
+        }
     }
 }
@@ -0,0 +1,191 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.dto.UnitReadDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of unit details: a bounded in-process near cache in front of Redis.
+ * Changes are invalidated in both tiers after commit and broadcast over Redis pub/sub,
+ * so other nodes drop their near copies as well. Each unit also has a version in Redis, bumped
+ * on invalidation, and a loaded copy is written only if the version is still the one read before
+ * the load, so a node that loaded a unit before another node's update cannot re-cache it.
+ */
+@Slf4j
+@Component
+public class UnitDetailsCache {
+
+    static final String INVALIDATION_CHANNEL = "unit-invalidation";
+    private static final String KEY_PREFIX = "unit:";
+    private static final String VERSION_PREFIX = "unit-version:";
+    private static final String NO_VERSION = "0";
+    private static final String NEAR_TIER = "units.near";
+    private static final String REDIS_TIER = "units.redis";
+
+    /**
+     * SET the unit only while its version is unchanged; returns 1 when written.
+     */
+    private static final RedisScript<Long> SET_IF_VERSION = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '0') == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Bump the unit's version and drop the cached copy. The version outlives the copy it guards,
+     * so a load started before the bump cannot find the version reset when it writes.
+     */
+    private static final RedisScript<Long> BUMP_VERSION = new DefaultRedisScript<>("""
+            local version = redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            redis.call('DEL', KEYS[1])
+            return version
+            """, Long.class);
+
+    private static final RedisSerializer<Long> SCRIPT_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    private final RedisTemplate<String, UnitReadDTO> unitRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<Long, UnitReadDTO> nearCache;
+    private final Duration redisTtl;
+
+    /**
+     * Bumped on every invalidation seen by this node; a Redis read or load that raced with one is not kept near.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisEvictions;
+
+    public UnitDetailsCache(
+            RedisTemplate<String, UnitReadDTO> unitRedisTemplate,
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${unit.cache.near.max-size:10000}") long nearMaxSize,
+            @Value("${unit.cache.near.ttl.minutes:10}") long nearTtlMinutes,
+            @Value("${unit.cache.redis.ttl.minutes:60}") long redisTtlMinutes
+    ) {
+        this.unitRedisTemplate = unitRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTtl = Duration.ofMinutes(redisTtlMinutes);
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(nearTtlMinutes))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, NEAR_TIER);
+        this.redisHits = tierCounter(meterRegistry, "cache.gets", "result", "hit");
+        this.redisMisses = tierCounter(meterRegistry, "cache.gets", "result", "miss");
+        this.redisEvictions = tierCounter(meterRegistry, "cache.evictions", null, null);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onRemoteInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Return the cached unit, or load it with {@code loader} and populate both tiers.
+     * Loader exceptions (e.g. unit not found) propagate and nothing is cached.
+     */
+    public UnitReadDTO get(Long unitId, Supplier<UnitReadDTO> loader) {
+        UnitReadDTO near = nearCache.getIfPresent(unitId);
+        if (near != null) {
+            return near;
+        }
+
+        long invalidationsBeforeRead = invalidations.get();
+        UnitReadDTO shared = unitRedisTemplate.opsForValue().get(KEY_PREFIX + unitId);
+        if (shared != null) {
+            redisHits.increment();
+            if (invalidations.get() == invalidationsBeforeRead) {
+                nearCache.put(unitId, shared);
+            }
+            return shared;
+        }
+        redisMisses.increment();
+
+        String versionBeforeLoad = Optional.ofNullable(stringRedisTemplate.opsForValue().get(VERSION_PREFIX + unitId))
+                .orElse(NO_VERSION);
+        UnitReadDTO loaded = loader.get();
+        if (storeIfVersion(unitId, versionBeforeLoad, loaded) && invalidations.get() == invalidationsBeforeRead) {
+            nearCache.put(unitId, loaded);
+        }
+        return loaded;
+    }
+
+    public Optional<UnitReadDTO> getIfPresent(Long unitId) {
+        return Optional.ofNullable(nearCache.getIfPresent(unitId));
+    }
+
+    /**
+     * Drop the unit from both tiers on every node once the current transaction commits.
+     */
+    public void evict(Long unitId) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            nearCache.invalidate(unitId);
+            stringRedisTemplate.execute(BUMP_VERSION, List.of(KEY_PREFIX + unitId, VERSION_PREFIX + unitId),
+                    String.valueOf(redisTtl.toMillis()));
+            redisEvictions.increment();
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, unitId.toString());
+        });
+    }
+
+    private void onRemoteInvalidation(String payload) {
+        try {
+            Long unitId = Long.valueOf(payload);
+            invalidations.incrementAndGet();
+            nearCache.invalidate(unitId);
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed unit invalidation message: {}", payload);
+        }
+    }
+
+    private boolean storeIfVersion(Long unitId, String version, UnitReadDTO unit) {
+        Long written = unitRedisTemplate.execute(SET_IF_VERSION, RedisSerializer.byteArray(), SCRIPT_RESULT,
+                List.of(KEY_PREFIX + unitId, VERSION_PREFIX + unitId),
+                version.getBytes(StandardCharsets.UTF_8),
+                serialize(unit),
+                String.valueOf(redisTtl.toMillis()).getBytes(StandardCharsets.UTF_8));
+        return Long.valueOf(1).equals(written);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(UnitReadDTO unit) {
+        return ((RedisSerializer<UnitReadDTO>) unitRedisTemplate.getValueSerializer()).serialize(unit);
+    }
+
+    private static Counter tierCounter(MeterRegistry registry, String name, String tagKey, String tagValue) {
+        Counter.Builder builder = Counter.builder(name).tag("cache", REDIS_TIER);
+        if (tagKey != null) {
+            builder.tag(tagKey, tagValue);
+        }
+        return builder.register(registry);
+    }
+}
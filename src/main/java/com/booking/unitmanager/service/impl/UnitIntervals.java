@@ -0,0 +1,145 @@
+package com.booking.unitmanager.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, start-sorted set of active booking intervals of a single unit,
+ * stored as epoch-second pairs. Every mutation returns a new instance, so
+ * readers never need a lock.
+ */
+final class UnitIntervals {
+
+    static final UnitIntervals EMPTY = new UnitIntervals(new long[0], new long[0], new long[0]);
+
+    private final long[] bookingIds;
+    private final long[] starts;
+    private final long[] ends;
+
+    /**
+     * Running maximum of {@link #ends}; lets {@link #overlaps} answer with a
+     * single binary search even when stored intervals overlap each other.
+     */
+    private final long[] maxEnds;
+
+    private UnitIntervals(long[] bookingIds, long[] starts, long[] ends) {
+        this.bookingIds = bookingIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    /**
+     * Whether any interval satisfies {@code intervalStart < end && intervalEnd > start}.
+     */
+    boolean overlaps(long start, long end) {
+        int candidates = firstStartNotBefore(end);
+        return candidates > 0 && maxEnds[candidates - 1] > start;
+    }
+
+    UnitIntervals with(long bookingId, long start, long end) {
+        int size = starts.length;
+        int position = firstStartNotBefore(start);
+
+        long[] newIds = new long[size + 1];
+        long[] newStarts = new long[size + 1];
+        long[] newEnds = new long[size + 1];
+        insert(bookingIds, newIds, position, bookingId);
+        insert(starts, newStarts, position, start);
+        insert(ends, newEnds, position, end);
+        return new UnitIntervals(newIds, newStarts, newEnds);
+    }
+
+    UnitIntervals without(long bookingId) {
+        int position = indexOf(bookingId);
+        if (position < 0) {
+            return this;
+        }
+        if (starts.length == 1) {
+            return EMPTY;
+        }
+        return new UnitIntervals(
+                remove(bookingIds, position),
+                remove(starts, position),
+                remove(ends, position));
+    }
+
+    /**
+     * Start second of the given booking, or {@code -1} if it is not part of this set.
+     */
+    long startOf(long bookingId) {
+        int position = indexOf(bookingId);
+        return position < 0 ? -1 : starts[position];
+    }
+
+    long endOf(long bookingId) {
+        int position = indexOf(bookingId);
+        return position < 0 ? -1 : ends[position];
+    }
+
+    boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    static UnitIntervals of(long[] bookingIds, long[] starts, long[] ends) {
+        Integer[] order = new Integer[starts.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+        long[] sortedIds = new long[order.length];
+        long[] sortedStarts = new long[order.length];
+        long[] sortedEnds = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = bookingIds[order[i]];
+            sortedStarts[i] = starts[order[i]];
+            sortedEnds[i] = ends[order[i]];
+        }
+        return new UnitIntervals(sortedIds, sortedStarts, sortedEnds);
+    }
+
+    private int firstStartNotBefore(long value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(long bookingId) {
+        for (int i = 0; i < bookingIds.length; i++) {
+            if (bookingIds[i] == bookingId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void insert(long[] source, long[] target, int position, long value) {
+        System.arraycopy(source, 0, target, 0, position);
+        target[position] = value;
+        System.arraycopy(source, position, target, position + 1, source.length - position);
+    }
+
+    private static long[] remove(long[] source, int position) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, position);
+        System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+        return target;
+    }
+}
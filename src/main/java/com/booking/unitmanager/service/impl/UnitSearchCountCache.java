@@ -0,0 +1,50 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.dto.UnitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived totals of unit searches keyed by filter, used for estimated page counts.
+ * A value may lag behind the database by up to the TTL; that is the contract of the mode.
+ */
+@Component
+class UnitSearchCountCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final ConcurrentMap<UnitFilter, CachedCount> counts = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    UnitSearchCountCache(@Value("${unit.search.count.ttl.seconds:60}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    long getOrCount(UnitFilter filter, LongSupplier exactCount) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(filter);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+        long value = exactCount.getAsLong();
+        if (counts.size() >= MAX_ENTRIES) {
+            evictExpired(now);
+        }
+        counts.put(filter, new CachedCount(value, now + ttlMillis));
+        return value;
+    }
+
+    private void evictExpired(long now) {
+        counts.values().removeIf(cached -> cached.expiresAt() <= now);
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.clear();
+        }
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.dto.UnitReadDTO;
+import com.booking.unitmanager.model.enums.CountMode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Short-lived search pages, keyed by normalized filter and page. A page keeps the units it listed,
+ * served by id and used to match bookings against. The cache is bounded by the number of units it
+ * holds, so walking page numbers or sizes cannot grow it.
+ * <p>
+ * Invalidation works per filter group: a change to one unit can shift every page of a
+ * filter it belongs to, so a group is dropped as a whole, but only when the unit's
+ * attributes match the filter and, for bookings, the booked period overlaps its dates.
+ * A booking only carries its unit id; the unit's attributes are taken from a cached page listing it,
+ * and when no page does, every overlapping date-filtered group is dropped.
+ * A page computed while an invalidation ran is stored only if that invalidation spared its filter.
+ */
+@Component
+class UnitSearchResultCache {
+
+    /**
+     * Invalidations remembered for pages still being computed; a page whose stamp predates
+     * all of them is not stored.
+     */
+    private static final int MAX_RECENT_INVALIDATIONS = 1_024;
+
+    private final Cache<EntryKey, CachedPage> pages;
+
+    /**
+     * Sequence of the last invalidation; a page is stamped with it before being computed.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ConcurrentLinkedDeque<Invalidation> recentInvalidations = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Cached pages of date-filtered searches, the only ones a booking can affect; never below the actual count.
+     */
+    private final AtomicLong datedPages = new AtomicLong();
+
+    UnitSearchResultCache(
+            @Value("${unit.search.cache.ttl.seconds:30}") long ttlSeconds,
+            @Value("${unit.search.cache.max-unit-ids:100000}") long maxUnitIds
+    ) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxUnitIds)
+                .weigher((EntryKey key, CachedPage page) -> Math.max(1, page.units().size()))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .executor(Runnable::run)
+                .removalListener((EntryKey key, CachedPage page, RemovalCause cause) -> {
+                    if (key != null && key.filter().hasDates()) {
+                        datedPages.decrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    Optional<CachedPage> get(UnitFilter filter, Pageable pageable, CountMode countMode) {
+        return Optional.ofNullable(pages.getIfPresent(EntryKey.of(filter.normalized(), pageable, countMode)));
+    }
+
+    long invalidationStamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Store a page unless an invalidation of its filter happened since {@code stamp} was taken.
+     * Checked again after storing, in case the invalidation swept the cache in between.
+     */
+    void put(UnitFilter filter, Pageable pageable, CountMode countMode,
+             List<UnitReadDTO> units, boolean hasNext, Long total, long stamp) {
+        UnitFilter normalized = filter.normalized();
+        if (invalidatedSince(normalized, stamp)) {
+            return;
+        }
+        EntryKey key = EntryKey.of(normalized, pageable, countMode);
+        CachedPage page = new CachedPage(List.copyOf(units), hasNext, total);
+        if (normalized.hasDates()) {
+            datedPages.incrementAndGet();
+        }
+        pages.put(key, page);
+        if (invalidatedSince(normalized, stamp)) {
+            pages.asMap().remove(key, page);
+        }
+    }
+
+    /**
+     * A booking of unit {@code unitId} over {@code [start, end)} was created or released.
+     * Without a known period every date-filtered search the unit could appear in is dropped.
+     */
+    void evictForBooking(Long unitId, Instant start, Instant end) {
+        evictForBookings(List.of(new BookedUnit(unitId, start, end)));
+    }
+
+    /**
+     * Several bookings were created or released together: one pass over the cached filters,
+     * dropping those any of the bookings affects as in {@link #evictForBooking}. Without cached
+     * date-filtered pages only the invalidation is recorded, for searches still running.
+     */
+    void evictForBookings(List<BookedUnit> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            if (datedPages.get() <= 0) {
+                recordInvalidation(filter -> bookings.stream().anyMatch(booking -> booking.affects(filter, null)));
+                return;
+            }
+            Map<Long, UnitReadDTO> listed = listedUnits(bookings);
+            evictWhere(filter -> bookings.stream()
+                    .anyMatch(booking -> booking.affects(filter, listed.get(booking.unitId()))));
+        });
+    }
+
+    /**
+     * A unit was created ({@code before} is null), updated, or deleted ({@code after} is null).
+     */
+    void evictForUnit(UnitReadDTO before, UnitReadDTO after) {
+        AfterCommit.run(() -> evictWhere(filter ->
+                (before != null && filter.matchesAttributes(before))
+                        || (after != null && filter.matchesAttributes(after))));
+    }
+
+    /**
+     * Many units changed at once, e.g. after a bulk import.
+     */
+    void evictAll() {
+        AfterCommit.run(() -> evictWhere(filter -> true));
+    }
+
+    private void evictWhere(Predicate<UnitFilter> affected) {
+        recordInvalidation(affected);
+        pages.asMap().keySet().removeIf(key -> affected.test(key.filter()));
+    }
+
+    private void recordInvalidation(Predicate<UnitFilter> affected) {
+        long sequence = invalidations.incrementAndGet();
+        recentInvalidations.addLast(new Invalidation(sequence, affected));
+        Invalidation oldest;
+        while ((oldest = recentInvalidations.peekFirst()) != null
+                && oldest.sequence() <= sequence - MAX_RECENT_INVALIDATIONS) {
+            recentInvalidations.remove(oldest);
+        }
+    }
+
+    /**
+     * The booked units as listed on cached pages of date-filtered searches. A page that still lists
+     * a unit after it changed would have been dropped, so these are the unit's current attributes.
+     */
+    private Map<Long, UnitReadDTO> listedUnits(List<BookedUnit> bookings) {
+        Set<Long> unitIds = bookings.stream().map(BookedUnit::unitId).collect(Collectors.toSet());
+        Map<Long, UnitReadDTO> listed = new HashMap<>();
+        pages.asMap().forEach((key, page) -> {
+            if (key.filter().hasDates()) {
+                page.units().stream()
+                        .filter(unit -> unitIds.contains(unit.getId()))
+                        .forEach(unit -> listed.putIfAbsent(unit.getId(), unit));
+            }
+        });
+        return listed;
+    }
+
+    private boolean invalidatedSince(UnitFilter filter, long stamp) {
+        if (invalidations.get() == stamp) {
+            return false;
+        }
+        Invalidation oldest = recentInvalidations.peekFirst();
+        if (oldest == null || oldest.sequence() > stamp + 1) {
+            return true;
+        }
+        return recentInvalidations.stream()
+                .anyMatch(invalidation -> invalidation.sequence() > stamp && invalidation.affected().test(filter));
+    }
+
+    /**
+     * A booking of unit {@code unitId} over {@code [start, end)}; the period may be unknown.
+     */
+    record BookedUnit(Long unitId, Instant start, Instant end) {
+
+        /**
+         * Whether the booking can change the filter's results; with unknown attributes ({@code unit}
+         * is null) any overlapping date-filtered search can.
+         */
+        boolean affects(UnitFilter filter, UnitReadDTO unit) {
+            return (start == null || end == null ? filter.hasDates() : filter.overlaps(start, end))
+                    && (unit == null || filter.matchesAttributes(unit));
+        }
+    }
+
+    private record Invalidation(long sequence, Predicate<UnitFilter> affected) {
+    }
+
+    record CachedPage(List<UnitReadDTO> units, boolean hasNext, Long total) {
+
+        List<Long> unitIds() {
+            return units.stream().map(UnitReadDTO::getId).toList();
+        }
+    }
+
+    private record EntryKey(UnitFilter filter, long offset, int size, Sort sort, CountMode countMode) {
+
+        static EntryKey of(UnitFilter filter, Pageable pageable, CountMode countMode) {
+            return new EntryKey(filter, pageable.getOffset(), pageable.getPageSize(), pageable.getSort(), countMode);
+        }
+    }
+}
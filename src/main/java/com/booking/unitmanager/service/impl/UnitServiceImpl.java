@@ -1,41 +1,85 @@
 package com.booking.unitmanager.service.impl;
 
+import com.booking.unitmanager.config.ReadRouting;
 import com.booking.unitmanager.exception.EntityNotFoundException;
-import com.booking.unitmanager.model.entity.BookingEntity;
-import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.exception.InvalidDateRangeException;
 import com.booking.unitmanager.mapper.UnitMapper;
 import com.booking.unitmanager.service.UnitService;
 import com.booking.unitmanager.model.entity.UnitEntity;
 import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.UnitCalendarDTO;
+import com.booking.unitmanager.model.dto.KeysetCursor;
 import com.booking.unitmanager.model.dto.UnitCreateDTO;
 import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.dto.UnitImportResult;
 import com.booking.unitmanager.model.dto.UnitReadDTO;
 import com.booking.unitmanager.model.dto.UnitUpdateDTO;
+import com.booking.unitmanager.model.enums.AvailabilityEventType;
+import com.booking.unitmanager.model.enums.CountMode;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "unit.service", histogram = true)
 class UnitServiceImpl implements UnitService {
 
     private final UnitRepository unitRepository;
-    private final BookingRepository bookingRepository;
     private final UnitMapper unitMapper;
     private final UnitCacheService unitCacheService;
+    private final UnitAvailabilityIndex unitAvailabilityIndex;
+    private final UnitSearchCountCache unitSearchCountCache;
+    private final UnitDetailsCache unitDetailsCache;
+    private final UnitSearchResultCache unitSearchResultCache;
+    private final AvailabilityEventFeed availabilityEventFeed;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${booking.system.markup}")
     private BigDecimal systemMarkup;
 
+    @Value("${unit.import.chunk.size:1000}")
+    private Integer importChunkSize;
+
     @Override
     @Transactional
     public UnitReadDTO createUnit(UnitCreateDTO unitCreateDTO) {
@@ -44,34 +88,130 @@ class UnitServiceImpl implements UnitService {
         UnitEntity createdUnit = unitRepository.save(unit);
 
         unitCacheService.incrementAvailableUnits();
+        unitAvailabilityIndex.registerUnits(1);
 
-        return unitMapper.toReadDTO(createdUnit);
+        UnitReadDTO created = unitMapper.toReadDTO(createdUnit);
+        unitSearchResultCache.evictForUnit(null, created);
+        availabilityEventFeed.unitChanged(AvailabilityEventType.UNIT_CREATED, created.getId());
+        return created;
     }
 
+    /**
+     * Reads the body one item at a time and inserts valid units in chunks of
+     * {@code unit.import.chunk.size}, each in its own transaction; caches are adjusted once per chunk.
+     * Items that fail to bind or validate are reported and skipped, malformed JSON ends the import.
+     */
+    @Override
+    public UnitImportResult importUnits(InputStream units) {
+        UnitImport unitImport = new UnitImport();
+        try (MappingIterator<UnitCreateDTO> items = objectMapper.readerFor(UnitCreateDTO.class).readValues(units)) {
+            long index = 0;
+            while (true) {
+                UnitCreateDTO item;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    item = items.nextValue();
+                } catch (JsonParseException ex) {
+                    unitImport.reject(index, "Malformed JSON: " + ex.getOriginalMessage());
+                    break;
+                } catch (DatabindException ex) {
+                    unitImport.reject(index++, ex.getOriginalMessage());
+                    continue;
+                }
+                String violations = validate(item);
+                if (violations != null) {
+                    unitImport.reject(index++, violations);
+                    continue;
+                }
+                index++;
+                UnitEntity unit = unitMapper.toEntity(item);
+                unit.setTotalCost(calculateTotalCost(item.getBaseCost()));
+                unitImport.pending.add(unit);
+                if (unitImport.pending.size() >= importChunkSize) {
+                    saveImportChunk(unitImport);
+                }
+            }
+        } catch (JsonParseException ex) {
+            unitImport.reject(0, "Malformed JSON: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read unit import", ex);
+        }
+        saveImportChunk(unitImport);
+
+        log.info("Imported {} units, rejected {}", unitImport.imported, unitImport.rejected);
+        return new UnitImportResult(unitImport.imported, unitImport.rejected, unitImport.errors);
+    }
+
+    private String validate(UnitCreateDTO item) {
+        if (item == null) {
+            return "Unit must not be null";
+        }
+        Set<ConstraintViolation<UnitCreateDTO>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void saveImportChunk(UnitImport unitImport) {
+        List<UnitEntity> chunk = unitImport.pending;
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> unitRepository.saveAll(chunk));
+
+        unitCacheService.adjustAvailableUnits(chunk.size());
+        unitAvailabilityIndex.registerUnits(chunk.size());
+        unitSearchResultCache.evictAll();
+        LongSummaryStatistics ids = chunk.stream().mapToLong(UnitEntity::getId).summaryStatistics();
+        availabilityEventFeed.unitsImported(ids.getMin(), ids.getMax());
+
+        unitImport.imported += chunk.size();
+        unitImport.pending = new ArrayList<>(importChunkSize);
+    }
+
+    /**
+     * A cache miss loads the unit from the primary: a copy from a lagging replica would stay
+     * in the details cache until the unit's next invalidation.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UnitReadDTO getUnit(Long id) {
-        return unitMapper.toReadDTO(getUnitById(id));
+        return unitDetailsCache.get(id, () -> ReadRouting.onPrimary(() -> unitMapper.toReadDTO(getUnitById(id))));
     }
 
     @Override
     @Transactional
     public UnitReadDTO updateUnit(Long id, UnitUpdateDTO unitUpdateDTO) {
         UnitEntity existingUnit = getUnitById(id);
+        UnitReadDTO before = unitMapper.toReadDTO(existingUnit);
         unitMapper.updateEntityFromDTO(unitUpdateDTO, existingUnit);
         existingUnit.setTotalCost(calculateTotalCost(unitUpdateDTO.getBaseCost()));
 
         UnitEntity updatedUnit = unitRepository.save(existingUnit);
+        unitDetailsCache.evict(id);
 
-        return unitMapper.toReadDTO(updatedUnit);
+        UnitReadDTO after = unitMapper.toReadDTO(updatedUnit);
+        unitSearchResultCache.evictForUnit(before, after);
+        availabilityEventFeed.unitChanged(AvailabilityEventType.UNIT_UPDATED, id);
+        return after;
     }
 
     @Override
     @Transactional
     public void deleteUnit(Long id) {
         UnitEntity unit = getUnitById(id);
+        UnitReadDTO before = unitMapper.toReadDTO(unit);
         unitRepository.delete(unit);
         unitCacheService.decrementAvailableUnits();
+        unitAvailabilityIndex.removeUnit(id);
+        unitDetailsCache.evict(id);
+        unitSearchResultCache.evictForUnit(before, null);
+        availabilityEventFeed.unitChanged(AvailabilityEventType.UNIT_DELETED, id);
     }
 
     @Override
@@ -82,13 +222,72 @@ class UnitServiceImpl implements UnitService {
         return unitsPage.map(unitMapper::toReadDTO);
     }
 
+    /**
+     * Served from the search result cache when possible; a cached page is served by unit id,
+     * resolved through the unit details cache.
+     */
+    @Override
+    public Slice<UnitReadDTO> findByCriteria(UnitFilter filter, Pageable pageable, CountMode countMode) {
+        Optional<Slice<UnitReadDTO>> cached = unitSearchResultCache.get(filter, pageable, countMode)
+                .flatMap(page -> resolve(page, pageable));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long stamp = unitSearchResultCache.invalidationStamp();
+        Slice<UnitReadDTO> result = searchUnits(filter, pageable, countMode);
+        Long total = result instanceof Page<UnitReadDTO> page ? page.getTotalElements() : null;
+        unitSearchResultCache.put(filter, pageable, countMode, result.getContent(), result.hasNext(), total, stamp);
+        return result;
+    }
+
+    private Slice<UnitReadDTO> searchUnits(UnitFilter filter, Pageable pageable, CountMode countMode) {
+        return switch (countMode) {
+            case EXACT -> findByCriteria(filter, pageable);
+            case NONE -> unitRepository.findSliceByCriteria(filter, pageable).map(unitMapper::toReadDTO);
+            case ESTIMATED -> {
+                Slice<UnitEntity> slice = unitRepository.findSliceByCriteria(filter, pageable);
+                long total = slice.hasNext()
+                        ? unitSearchCountCache.getOrCount(filter, () -> unitRepository.countByCriteria(filter))
+                        : pageable.getOffset() + slice.getNumberOfElements();
+                yield new PageImpl<>(slice.getContent(), pageable, total).map(unitMapper::toReadDTO);
+            }
+        };
+    }
+
+    /**
+     * Rebuild a cached page, or nothing if one of its units has disappeared in the meantime.
+     */
+    private Optional<Slice<UnitReadDTO>> resolve(UnitSearchResultCache.CachedPage page, Pageable pageable) {
+        List<UnitReadDTO> units = new ArrayList<>(page.unitIds().size());
+        try {
+            for (Long unitId : page.unitIds()) {
+                units.add(getUnit(unitId));
+            }
+        } catch (EntityNotFoundException ex) {
+            return Optional.empty();
+        }
+        return Optional.of(page.total() != null
+                ? new PageImpl<>(units, pageable, page.total())
+                : new SliceImpl<>(units, pageable, page.hasNext()));
+    }
+
     @Override
     @Transactional(readOnly = true)
+    public CursorSlice<UnitReadDTO> findByCriteria(UnitFilter filter, String cursor, Pageable pageable) {
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor, pageable.getSort());
+        return unitRepository.findByCriteriaAfter(filter, keysetCursor, pageable.getPageSize())
+                .map(unitMapper::toReadDTO);
+    }
+
+    @Override
     public boolean isUnitAvailable(Long unitId, Instant startDate, Instant endDate) {
-        List<BookingEntity> activeBookings = bookingRepository.findActiveBookingsForUnitInDateRange(
-                unitId, startDate, endDate);
+        return unitAvailabilityIndex.isAvailable(unitId, startDate, endDate);
+    }
 
-        return activeBookings.isEmpty();
+    @Override
+    public List<Long> findAvailableUnitIds(Collection<Long> unitIds, Instant startDate, Instant endDate) {
+        return unitAvailabilityIndex.availableAmong(new LinkedHashSet<>(unitIds), startDate, endDate);
     }
 
     @Override
@@ -97,12 +296,56 @@ class UnitServiceImpl implements UnitService {
         return unitCacheService.getAvailableUnitsCount();
     }
 
+    @Override
+    public Map<LocalDate, Long> getAvailableUnitsCountByDay(LocalDate from, int days) {
+        return unitAvailabilityIndex.countAvailableUnitsByDay(from, days);
+    }
+
+    /**
+     * Answered from the availability index; the unit itself comes from the details cache,
+     * so a calendar request never touches the database on a warm cache.
+     */
+    @Override
+    public UnitCalendarDTO getUnitCalendar(Long unitId, LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to);
+        if (days < 1 || days > UnitAvailabilityIndex.MAX_COUNT_DAYS) {
+            throw new InvalidDateRangeException(
+                    "Calendar must span between 1 and " + UnitAvailabilityIndex.MAX_COUNT_DAYS + " days");
+        }
+        getUnit(unitId);
+
+        BitSet occupied = unitAvailabilityIndex.occupiedDays(unitId, from, (int) days);
+        byte[] bitmap = Arrays.copyOf(occupied.toByteArray(), (int) (days + 7) / 8);
+        return new UnitCalendarDTO(unitId, from, to, Base64.getEncoder().encodeToString(bitmap));
+    }
+
     private UnitEntity getUnitById(Long id) {
         return unitRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Unit not found with id: " + id));
     }
 
+    private static final class UnitImport {
+
+        private static final int MAX_REPORTED_ERRORS = 100;
+
+        private final List<UnitImportResult.ItemError> errors = new ArrayList<>();
+        private List<UnitEntity> pending = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        void reject(long index, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UnitImportResult.ItemError(index, message));
+            }
+        }
+    }
+
     private BigDecimal calculateTotalCost(BigDecimal baseCost) {
+        return calculateTotalCost(baseCost, systemMarkup);
+    }
+
+    static BigDecimal calculateTotalCost(BigDecimal baseCost, BigDecimal systemMarkup) {
         if (baseCost == null) {
             return BigDecimal.ZERO;
         }
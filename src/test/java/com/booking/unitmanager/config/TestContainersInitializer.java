@@ -2,34 +2,118 @@ package com.booking.unitmanager.config;
 
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
 import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
 import org.testcontainers.utility.DockerImageName;
 
 public class TestContainersInitializer {
 
+    private static final DockerImageName POSTGRES_IMAGE = DockerImageName.parse("postgres:16-alpine");
+
+    /**
+     * Creates the replication role and lets it connect for streaming replication.
+     */
+    private static final String PRIMARY_REPLICATION_SETUP = """
+            #!/bin/sh
+            set -e
+            psql -v ON_ERROR_STOP=1 -U "$POSTGRES_USER" -d "$POSTGRES_DB" \\
+                -c "CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD 'replicator'"
+            echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+            """;
+
+    /**
+     * Clones the primary with pg_basebackup, retrying until it accepts replication connections,
+     * and starts a hot standby that streams from it.
+     */
+    private static final String REPLICA_ENTRYPOINT = """
+            set -e
+            mkdir -p "$PGDATA" && chown postgres "$PGDATA" && chmod 700 "$PGDATA"
+            until su-exec postgres pg_basebackup -h primary -U replicator -D "$PGDATA" -R -X stream; do
+                rm -rf "${PGDATA:?}"/*
+                sleep 1
+            done
+            exec su-exec postgres postgres -c hot_standby=on
+            """;
+
     private static PostgreSQLContainer<?> postgresContainer;
     private static GenericContainer<?> redisContainer;
 
+    private static PostgreSQLContainer<?> replicationPrimary;
+    private static GenericContainer<?> replica;
+
     public static void initializeContainers() {
-        postgresContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"))
+        postgresContainer = new PostgreSQLContainer<>(POSTGRES_IMAGE)
                 .withDatabaseName("testdb")
                 .withUsername("test")
                 .withPassword("test")
                 .withReuse(true);
 
-        redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
-                .withExposedPorts(6379)
-                .withReuse(true);
-
         postgresContainer.start();
-        redisContainer.start();
+        startRedis();
+    }
+
+    /**
+     * Start a primary and a streaming replica on their own network, for tests of read-only routing.
+     */
+    public static void initializeReplicationContainers() {
+        Network network = Network.newNetwork();
+        replicationPrimary = new PostgreSQLContainer<>(POSTGRES_IMAGE)
+                .withDatabaseName("testdb")
+                .withUsername("test")
+                .withPassword("test")
+                .withNetwork(network)
+                .withNetworkAliases("primary")
+                .withCopyToContainer(Transferable.of(PRIMARY_REPLICATION_SETUP, 0755),
+                        "/docker-entrypoint-initdb.d/replication.sh");
+
+        replica = new GenericContainer<>(POSTGRES_IMAGE)
+                .withNetwork(network)
+                .withEnv("PGPASSWORD", "replicator")
+                .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+                .withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("sh", "-c", REPLICA_ENTRYPOINT))
+                .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\n", 1))
+                .dependsOn(replicationPrimary);
+
+        replicationPrimary.start();
+        replica.start();
+        startRedis();
     }
 
     public static void registerContainerProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
         registry.add("spring.datasource.username", postgresContainer::getUsername);
         registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registerRedisProperties(registry);
+    }
+
+    public static void registerReplicationContainerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", replicationPrimary::getJdbcUrl);
+        registry.add("spring.datasource.username", replicationPrimary::getUsername);
+        registry.add("spring.datasource.password", replicationPrimary::getPassword);
+        registry.add("datasource.replica.urls", TestContainersInitializer::getReplicaJdbcUrl);
+        registerRedisProperties(registry);
+    }
+
+    /**
+     * JDBC URL of the replica; it accepts the primary's credentials.
+     */
+    public static String getReplicaJdbcUrl() {
+        return "jdbc:postgresql://" + replica.getHost() + ":"
+                + replica.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/testdb";
+    }
+
+    private static void startRedis() {
+        if (redisContainer == null) {
+            redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+                    .withExposedPorts(6379)
+                    .withReuse(true);
+            redisContainer.start();
+        }
+    }
 
+    private static void registerRedisProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.redis.host", redisContainer::getHost);
         registry.add("spring.data.redis.port", redisContainer::getFirstMappedPort);
     }
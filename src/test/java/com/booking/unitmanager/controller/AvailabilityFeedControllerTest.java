@@ -0,0 +1,50 @@
+package com.booking.unitmanager.controller;
+
+import com.booking.unitmanager.service.AvailabilityFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(AvailabilityFeedController.class)
+class AvailabilityFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AvailabilityFeedService availabilityFeedService;
+
+    @Test
+    void subscribe_WithUnitIdsAndLastEventId_ShouldOpenFilteredFeed() throws Exception {
+        when(availabilityFeedService.subscribe(Set.of(1L, 2L), 42L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/units/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("unitIds", "1", "2")
+                        .header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+
+        verify(availabilityFeedService).subscribe(Set.of(1L, 2L), 42L);
+    }
+
+    @Test
+    void subscribe_WithoutParameters_ShouldOpenFeedForAllUnits() throws Exception {
+        when(availabilityFeedService.subscribe(Set.of(), null)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/units/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(availabilityFeedService).subscribe(Set.of(), null);
+    }
+}
@@ -1,10 +1,16 @@
 package com.booking.unitmanager.controller;
 
 import com.booking.unitmanager.exception.EntityNotFoundException;
+import com.booking.unitmanager.exception.ExportLimitExceededException;
 import com.booking.unitmanager.exception.UnitIsNotAvailableException;
+import com.booking.unitmanager.model.dto.BookingBatchCreateDTO;
+import com.booking.unitmanager.model.dto.BookingBatchResult;
 import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingExportFilter;
 import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.enums.BatchMode;
 import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.model.enums.ExportFormat;
 import com.booking.unitmanager.service.BookingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Nested;
@@ -14,21 +20,34 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -90,6 +109,47 @@ class BookingControllerTest {
         }
     }
 
+    @Nested
+    class CreateBookingsBatchTest {
+        @Test
+        void createBookings_WithValidBatch_ShouldReturnPerItemResults() throws Exception {
+            BookingReadDTO bookingReadDTO = getBookingReadDTO();
+            BookingBatchResult batchResult = new BookingBatchResult(1, 1, List.of(
+                    new BookingBatchResult.Item(0, bookingReadDTO, null),
+                    new BookingBatchResult.Item(1, null, "Unit is not available for the selected dates")));
+            when(bookingService.createBookings(any(), eq(BatchMode.BEST_EFFORT))).thenReturn(batchResult);
+
+            BookingBatchCreateDTO batchDTO = new BookingBatchCreateDTO();
+            batchDTO.setBookings(List.of(getBookingCreateDTO(), getBookingCreateDTO()));
+            batchDTO.setMode(BatchMode.BEST_EFFORT);
+
+            mockMvc.perform(post("/api/v1/bookings/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(batchDTO)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.items[0].booking.id").value(bookingReadDTO.getId()))
+                    .andExpect(jsonPath("$.items[1].error").value("Unit is not available for the selected dates"));
+
+            verify(bookingService).createBookings(any(), eq(BatchMode.BEST_EFFORT));
+        }
+
+        @Test
+        void createBookings_WithInvalidItem_ShouldReturnBadRequest() throws Exception {
+            BookingCreateDTO invalidDTO = getBookingCreateDTO();
+            invalidDTO.setUnitId(null);
+            BookingBatchCreateDTO batchDTO = new BookingBatchCreateDTO();
+            batchDTO.setBookings(List.of(invalidDTO));
+
+            mockMvc.perform(post("/api/v1/bookings/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(batchDTO)))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookingService, never()).createBookings(any(), any());
+        }
+    }
+
     @Nested
     class getBookingByIdTest {
 
@@ -119,6 +179,57 @@ class BookingControllerTest {
         }
     }
 
+    @Nested
+    class ExportBookingsTest {
+
+        @Test
+        void exportByUnitId_ShouldStreamBodyAsAttachment() throws Exception {
+            Instant from = Instant.parse("2030-01-01T00:00:00Z");
+            StreamingResponseBody body = out -> out.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            when(bookingService.exportBookings(any(BookingExportFilter.class), eq(ExportFormat.CSV))).thenReturn(body);
+
+            MvcResult mvcResult = mockMvc.perform(get("/api/v1/bookings/unit/1/export")
+                            .param("format", "CSV")
+                            .param("from", from.toString())
+                            .param("status", "PENDING", "PAID"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertEquals(Duration.ofMinutes(30).toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("bookings-unit-1.csv")))
+                    .andExpect(content().string("id\n1\n"));
+
+            BookingExportFilter expectedFilter = BookingExportFilter.builder()
+                    .unitId(1L)
+                    .from(from)
+                    .statuses(Set.of(BookingStatus.PENDING, BookingStatus.PAID))
+                    .build();
+            verify(bookingService).exportBookings(expectedFilter, ExportFormat.CSV);
+        }
+
+        @Test
+        void exportByUserId_WithNonExistingUser_ShouldReturnNotFound() throws Exception {
+            when(bookingService.exportBookings(any(BookingExportFilter.class), eq(ExportFormat.NDJSON)))
+                    .thenThrow(new EntityNotFoundException("User not found"));
+
+            mockMvc.perform(get("/api/v1/bookings/user/999/export"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void exportByUnitId_WhenExportLimitReached_ShouldReturnTooManyRequests() throws Exception {
+            when(bookingService.exportBookings(any(BookingExportFilter.class), eq(ExportFormat.NDJSON)))
+                    .thenThrow(new ExportLimitExceededException("Too many booking exports in progress"));
+
+            mockMvc.perform(get("/api/v1/bookings/unit/1/export"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(request().asyncNotStarted());
+        }
+    }
+
     @Test
     void cancelBooking_WithExistingId_ShouldReturnUpdatedBooking() throws Exception {
         BookingReadDTO bookingReadDTO = getBookingReadDTO();
@@ -0,0 +1,170 @@
+package com.booking.unitmanager.controller;
+
+import com.booking.unitmanager.UnitManagerApplication;
+import com.booking.unitmanager.config.TestContainersInitializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares throughput and p99 latency of availability checks and booking creation over HTTP
+ * with Tomcat on platform threads versus virtual threads. Each mode gets its own application
+ * context against the same Testcontainers database, with the same Hikari pool, so it only
+ * runs through {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class RequestThreadingLoadBenchmarkTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 10_000);
+    private static final int WARMUP_REQUESTS = 1_000;
+
+    private static final Logger log = LoggerFactory.getLogger(RequestThreadingLoadBenchmarkTest.class);
+
+    @BeforeAll
+    static void startContainers() {
+        TestContainersInitializer.initializeContainers();
+    }
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtualThreads)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                long[] unitIds = seed(context.getBean(JdbcTemplate.class));
+                long userId = context.getBean(JdbcTemplate.class)
+                        .queryForObject("SELECT MIN(id) FROM app_users", Long.class);
+                Instant startDate = Instant.now().plus(30, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+                Instant endDate = startDate.plus(2, ChronoUnit.DAYS);
+
+                LongFunction<HttpRequest> availability = i -> HttpRequest.newBuilder(URI.create(baseUrl
+                                + "/api/v1/units/" + unitIds[(int) (i % unitIds.length)] + "/availability"
+                                + "?startDate=" + startDate + "&endDate=" + endDate))
+                        .GET()
+                        .build();
+                LongFunction<HttpRequest> booking = i -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/bookings"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("""
+                                {"unitId": %d, "userId": %d, "startDate": "%s", "endDate": "%s"}
+                                """.formatted(unitIds[(int) i], userId, startDate, endDate)))
+                        .build();
+
+                String mode = virtualThreads ? "virtual" : "platform";
+                run(availability, WARMUP_REQUESTS);
+                Result availabilityResult = run(availability, REQUESTS);
+                Result bookingResult = run(booking, REQUESTS);
+                report.add(availabilityResult.format(mode, "availability"));
+                report.add(bookingResult.format(mode, "booking"));
+
+                assertEquals(0, availabilityResult.failures(), "failed availability requests (" + mode + ")");
+                assertEquals(0, bookingResult.failures(), "failed booking requests (" + mode + ")");
+            }
+        }
+
+        log.info("Request threading comparison:\n{}\n{}",
+                "%-9s %-13s %12s %10s %10s".formatted("threads", "request", "req/s", "p50 ms", "p99 ms"),
+                String.join("\n", report));
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        Map<String, Object> properties = new HashMap<>();
+        TestContainersInitializer.registerContainerProperties((name, value) -> properties.put(name, value.get()));
+        properties.put("server.port", 0);
+        properties.put("spring.threads.virtual.enabled", virtualThreads);
+        properties.put("spring.jpa.show-sql", false);
+        return new SpringApplicationBuilder(UnitManagerApplication.class)
+                .profiles("test")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * One unit per booking request, so every booking is admitted and the run measures admission, not conflicts.
+     */
+    private static long[] seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM units");
+        jdbcTemplate.update("DELETE FROM app_users");
+        jdbcTemplate.update("""
+                INSERT INTO app_users (username, email, password_hash, first_name, last_name, created_at)
+                VALUES ('benchmark', 'benchmark@example.com', '?#1', 'Bench', 'Mark', now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO units (number_of_rooms, accommodation_type, floor, base_cost, total_cost, description)
+                SELECT 1 + n % 4, 'FLAT', n % 10, 100, 115, 'Load test unit ' || n
+                FROM generate_series(1, ?) AS n
+                """, REQUESTS);
+        return jdbcTemplate.queryForList("SELECT id FROM units ORDER BY id", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private static Result run(LongFunction<HttpRequest> requests, int count) throws Exception {
+        long[] latencies = new long[count];
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        int failures = 0;
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            List<Future<Integer>> statuses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                inFlight.acquire();
+                statuses.add(executor.submit(() -> {
+                    try {
+                        long requestStarted = System.nanoTime();
+                        HttpResponse<Void> response = client.send(requests.apply(index), HttpResponse.BodyHandlers.discarding());
+                        latencies[index] = System.nanoTime() - requestStarted;
+                        return response.statusCode();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<Integer> status : statuses) {
+                if (status.get() >= 300) {
+                    failures++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(latencies);
+        return new Result(count * 1_000_000_000.0 / elapsed,
+                latencies[count / 2] / 1_000_000.0,
+                latencies[(int) Math.ceil(count * 0.99) - 1] / 1_000_000.0,
+                failures);
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, int failures) {
+
+        String format(String mode, String request) {
+            return "%-9s %-13s %12.0f %10.2f %10.2f".formatted(mode, request, throughput, p50Millis, p99Millis);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.booking.unitmanager.controller;
 
 import com.booking.unitmanager.exception.EntityNotFoundException;
+import com.booking.unitmanager.exception.InvalidCursorException;
+import com.booking.unitmanager.exception.InvalidDateRangeException;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.UnitAvailabilityQueryDTO;
+import com.booking.unitmanager.model.dto.UnitCalendarDTO;
 import com.booking.unitmanager.model.dto.UnitCreateDTO;
 import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.dto.UnitImportResult;
 import com.booking.unitmanager.model.dto.UnitReadDTO;
 import com.booking.unitmanager.model.dto.UnitUpdateDTO;
 import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.CountMode;
 import com.booking.unitmanager.service.UnitService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Nested;
@@ -14,19 +21,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -90,6 +105,30 @@ class UnitControllerTest {
         }
     }
 
+    @Nested
+    class ImportUnitsTests {
+
+        @Test
+        void importUnits_WithNdjson_ShouldReturnSummary() throws Exception {
+            UnitImportResult importResult = new UnitImportResult(2, 1,
+                    List.of(new UnitImportResult.ItemError(1, "numberOfRooms: Number of rooms must be at least 1")));
+            when(unitService.importUnits(any(InputStream.class))).thenReturn(importResult);
+
+            String body = objectMapper.writeValueAsString(getUnitCreateDTO()) + "\n"
+                    + objectMapper.writeValueAsString(getUnitCreateDTO()) + "\n";
+
+            mockMvc.perform(post("/api/v1/units/import")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported").value(2))
+                    .andExpect(jsonPath("$.rejected").value(1))
+                    .andExpect(jsonPath("$.errors[0].index").value(1));
+
+            verify(unitService).importUnits(any(InputStream.class));
+        }
+    }
+
     @Nested
     class GetUnitByIdTests {
 
@@ -185,7 +224,8 @@ class UnitControllerTest {
             UnitReadDTO unitReadDTO = getUnitReadDTO();
             Page<UnitReadDTO> unitsPage = new PageImpl<>(List.of(unitReadDTO));
 
-            when(unitService.findByCriteria(any(UnitFilter.class), any(Pageable.class))).thenReturn(unitsPage);
+            when(unitService.findByCriteria(any(UnitFilter.class), any(Pageable.class), eq(CountMode.EXACT)))
+                    .thenReturn(unitsPage);
 
             mockMvc.perform(get("/api/v1/units")
                             .param("numberOfRooms", "2")
@@ -198,7 +238,55 @@ class UnitControllerTest {
                     .andExpect(jsonPath("$.content[0].numberOfRooms").value(unitReadDTO.getNumberOfRooms()))
                     .andExpect(jsonPath("$.content[0].accommodationType").value(unitReadDTO.getAccommodationType().toString()));
 
-            verify(unitService).findByCriteria(any(UnitFilter.class), any(Pageable.class));
+            verify(unitService).findByCriteria(any(UnitFilter.class), any(Pageable.class), eq(CountMode.EXACT));
+        }
+
+        @Test
+        void findByCriteria_WithoutCount_ShouldReturnSliceWithoutTotals() throws Exception {
+            UnitReadDTO unitReadDTO = getUnitReadDTO();
+            Slice<UnitReadDTO> unitsSlice = new SliceImpl<>(List.of(unitReadDTO), PageRequest.of(0, 1), true);
+
+            when(unitService.findByCriteria(any(UnitFilter.class), any(Pageable.class), eq(CountMode.NONE)))
+                    .thenReturn(unitsSlice);
+
+            mockMvc.perform(get("/api/v1/units")
+                            .param("count", "NONE")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(unitReadDTO.getId()))
+                    .andExpect(jsonPath("$.last").value(false))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+            verify(unitService).findByCriteria(any(UnitFilter.class), any(Pageable.class), eq(CountMode.NONE));
+        }
+
+        @Test
+        void findByCriteria_WithCursor_ShouldReturnSliceWithoutTotals() throws Exception {
+            UnitReadDTO unitReadDTO = getUnitReadDTO();
+            CursorSlice<UnitReadDTO> slice = new CursorSlice<>(List.of(unitReadDTO), 1, true, "next-token");
+
+            when(unitService.findByCriteria(any(UnitFilter.class), eq("token"), any(Pageable.class))).thenReturn(slice);
+
+            mockMvc.perform(get("/api/v1/units")
+                            .param("floor", "3")
+                            .param("cursor", "token")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(unitReadDTO.getId()))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+            verify(unitService, never()).findByCriteria(any(UnitFilter.class), any(Pageable.class));
+        }
+
+        @Test
+        void findByCriteria_WithMalformedCursor_ShouldReturnBadRequest() throws Exception {
+            when(unitService.findByCriteria(any(UnitFilter.class), eq("broken"), any(Pageable.class)))
+                    .thenThrow(new InvalidCursorException("Malformed cursor"));
+
+            mockMvc.perform(get("/api/v1/units").param("cursor", "broken"))
+                    .andExpect(status().isBadRequest());
         }
     }
 
@@ -218,6 +306,79 @@ class UnitControllerTest {
         verify(unitService).isUnitAvailable(eq(1L), any(Instant.class), any(Instant.class));
     }
 
+    @Test
+    void findAvailableUnits_ShouldReturnFreeUnitIds() throws Exception {
+        Instant startDate = Instant.parse("2030-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2030-01-03T00:00:00Z");
+        when(unitService.findAvailableUnitIds(List.of(1L, 2L, 3L), startDate, endDate)).thenReturn(List.of(1L, 3L));
+
+        UnitAvailabilityQueryDTO query = new UnitAvailabilityQueryDTO();
+        query.setUnitIds(List.of(1L, 2L, 3L));
+        query.setStartDate(startDate);
+        query.setEndDate(endDate);
+
+        mockMvc.perform(post("/api/v1/units/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(query)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableUnitIds[0]").value(1))
+                .andExpect(jsonPath("$.availableUnitIds[1]").value(3));
+    }
+
+    @Test
+    void findAvailableUnits_WithoutUnitIds_ShouldReturnBadRequest() throws Exception {
+        UnitAvailabilityQueryDTO query = new UnitAvailabilityQueryDTO();
+        query.setUnitIds(List.of());
+        query.setStartDate(Instant.parse("2030-01-01T00:00:00Z"));
+        query.setEndDate(Instant.parse("2030-01-03T00:00:00Z"));
+
+        mockMvc.perform(post("/api/v1/units/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(query)))
+                .andExpect(status().isBadRequest());
+
+        verify(unitService, never()).findAvailableUnitIds(any(), any(), any());
+    }
+
+    @Test
+    void getCalendar_ShouldReturnBitmapWithETag() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 11);
+        when(unitService.getUnitCalendar(1L, from, to)).thenReturn(new UnitCalendarDTO(1L, from, to, "BgA="));
+
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-01-11"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"BgA=\""))
+                .andExpect(jsonPath("$.occupiedDays").value("BgA="));
+    }
+
+    @Test
+    void getCalendar_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 11);
+        when(unitService.getUnitCalendar(1L, from, to)).thenReturn(new UnitCalendarDTO(1L, from, to, "BgA="));
+
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-01-11")
+                        .header("If-None-Match", "\"BgA=\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getCalendar_WithInvalidRange_ShouldReturnBadRequest() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        when(unitService.getUnitCalendar(1L, from, from))
+                .thenThrow(new InvalidDateRangeException("Calendar must span between 1 and 366 days"));
+
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAvailableUnitsCount_ShouldReturnCount() throws Exception {
         when(unitService.getAvailableUnitsCount()).thenReturn(5L);
@@ -229,6 +390,25 @@ class UnitControllerTest {
         verify(unitService).getAvailableUnitsCount();
     }
 
+    @Test
+    void getAvailableUnitsCount_WithDate_ShouldReturnCountsByDay() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        Map<LocalDate, Long> counts = new LinkedHashMap<>();
+        counts.put(from, 3L);
+        counts.put(from.plusDays(1), 5L);
+        when(unitService.getAvailableUnitsCountByDay(from, 2)).thenReturn(counts);
+
+        mockMvc.perform(get("/api/v1/units/available/count")
+                        .param("date", "2030-01-01")
+                        .param("days", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['2030-01-01']").value(3))
+                .andExpect(jsonPath("$['2030-01-02']").value(5));
+
+        verify(unitService).getAvailableUnitsCountByDay(from, 2);
+        verify(unitService, never()).getAvailableUnitsCount();
+    }
+
     private UnitReadDTO getUnitReadDTO() {
         UnitReadDTO unitReadDTO = new UnitReadDTO();
         unitReadDTO.setId(1L);
@@ -0,0 +1,215 @@
+package com.booking.unitmanager.dao;
+
+import com.booking.unitmanager.model.dto.KeysetCursor;
+import com.booking.unitmanager.service.AbstractIntegrationTest;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the booking indexes: the SQL Hibernate generates for each hot repository query is
+ * captured by a {@link StatementInspector} and explained as a generic plan, which must reach
+ * bookings through the index built for that query. Sequential scans are disabled for the session
+ * because the planner would prefer them on the near-empty test tables.
+ */
+class BookingQueryPlanTest extends AbstractIntegrationTest {
+
+    private static final Instant FROM = Instant.parse("2030-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2030-01-05T00:00:00Z");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void findByUserId_ShouldUseUserIndex() {
+        // Given
+        String sql = generatedSql(() -> bookingRepository.findByUserId(1L, PageRequest.of(0, 20)));
+
+        // When
+        String plan = explain(sql);
+
+        // Then
+        assertUsesIndex(plan, "idx_bookings_user_id_id");
+    }
+
+    @Test
+    void findByUnitId_ShouldUseUnitIndex() {
+        // Given
+        String sql = generatedSql(() -> bookingRepository.findByUnitId(1L, PageRequest.of(0, 20)));
+
+        // When
+        String plan = explain(sql);
+
+        // Then
+        assertUsesIndex(plan, "idx_bookings_unit_id_id");
+    }
+
+    @Test
+    void findByUserIdAfter_ShouldSeekThroughUserIndex() {
+        // Given
+        KeysetCursor cursor = KeysetCursor.first(Sort.by("id")).after(100L, 100L);
+        String sql = generatedSql(() -> bookingRepository.findByUserIdAfter(1L, cursor, 20));
+
+        // When
+        String plan = explain(sql);
+
+        // Then
+        assertUsesIndex(plan, "idx_bookings_user_id_id");
+        assertFalse(plan.contains("Sort"), () -> "Keyset page should not sort:\n" + plan);
+    }
+
+    @Test
+    void findActiveBookingsForUnitInDateRange_ShouldUseActivePeriodIndex() {
+        // Given
+        String sql = generatedSql(() -> bookingRepository.findActiveBookingsForUnitInDateRange(1L, FROM, TO));
+
+        // When
+        String plan = explain(sql);
+
+        // Then
+        assertUsesIndex(plan, "idx_bookings_unit_active_period");
+    }
+
+    @Test
+    void findExpiredBookings_ShouldUsePendingDeadlineIndex() {
+        // Given
+        String sql = generatedSql(() -> bookingRepository.findExpiredBookings(FROM));
+
+        // When
+        String plan = explain(sql);
+
+        // Then
+        assertUsesIndex(plan, "idx_bookings_pending_deadline");
+    }
+
+    @Test
+    void findPendingPaymentDeadlines_ShouldUsePendingDeadlineIndex() {
+        // Given
+        String sql = generatedSql(bookingRepository::findPendingPaymentDeadlines);
+
+        // When
+        String plan = explain(sql);
+
+        // Then
+        assertUsesIndex(plan, "idx_bookings_pending_deadline");
+    }
+
+    @Test
+    void countAvailableUnits_ShouldJoinBookingsThroughUnitIndex() {
+        // Given
+        String sql = generatedSql(() -> unitRepository.countAvailableUnits(FROM, TO));
+
+        // When
+        // without hash joins the bookings side is probed or merged by unit_id rather than read whole
+        String plan = explain(sql, "enable_hashjoin = off");
+
+        // Then
+        assertUsesIndex(plan, "idx_bookings_unit_id_id");
+    }
+
+    /**
+     * Run the repository call and return the first bookings query Hibernate issued for it.
+     */
+    private String generatedSql(Runnable repositoryCall) {
+        sqlCapture.clear();
+        repositoryCall.run();
+        return sqlCapture.statements().stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select") && sql.contains("bookings"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No bookings query captured: " + sqlCapture.statements()));
+    }
+
+    /**
+     * EXPLAIN a statement with JDBC placeholders as a generic plan, the one a prepared statement
+     * falls back to, after disabling sequential scans and the given planner settings.
+     */
+    private String explain(String sql, String... planSettings) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            for (String setting : planSettings) {
+                jdbcTemplate.execute("SET LOCAL " + setting);
+            }
+            List<String> lines = jdbcTemplate.queryForList(
+                    "EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class);
+            return String.join("\n", lines);
+        });
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 8);
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static void assertUsesIndex(String plan, String indexName) {
+        assertTrue(plan.contains(indexName), () -> "Expected " + indexName + " in plan:\n" + plan);
+        assertFalse(plan.contains("Seq Scan on bookings"), () -> "Unexpected sequential scan:\n" + plan);
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    static class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        List<String> statements() {
+            return statements;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.booking.unitmanager.dao;
+
+import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.service.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares date-filtered unit search latency of the former LEFT JOIN + DISTINCT query with the
+ * NOT EXISTS anti-join. Both run as native SQL through {@link JdbcTemplate}, so only the queries differ;
+ * the anti-join SQL is checked to return the same page as the repository. Seeds {@code benchmark.units}
+ * units with {@code benchmark.bookings} bookings each (100k x 50 by default), so it only runs through
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UnitSearchBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final int UNITS = Integer.getInteger("benchmark.units", 100_000);
+    private static final int BOOKINGS_PER_UNIT = Integer.getInteger("benchmark.bookings", 50);
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final LocalDate SEARCH_START = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SEARCH_END = SEARCH_START.plusDays(3);
+
+    /**
+     * SQL Hibernate generated for the join-based filter before the rewrite (page query plus count).
+     */
+    private static final String LEGACY_PAGE_SQL = """
+            SELECT DISTINCT u.* FROM units u
+            LEFT JOIN bookings b ON b.unit_id = u.id
+            WHERE b.id IS NULL OR b.status IN ('CANCELLED', 'EXPIRED')
+               OR b.start_date >= ? OR b.end_date <= ?
+            ORDER BY u.id OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY
+            """;
+    private static final String LEGACY_COUNT_SQL = """
+            SELECT COUNT(DISTINCT u.id) FROM units u
+            LEFT JOIN bookings b ON b.unit_id = u.id
+            WHERE b.id IS NULL OR b.status IN ('CANCELLED', 'EXPIRED')
+               OR b.start_date >= ? OR b.end_date <= ?
+            """;
+
+    /**
+     * The anti-join the criteria query generates for a date filter, with the same page and count.
+     */
+    private static final String ANTI_JOIN_PAGE_SQL = """
+            SELECT u.* FROM units u
+            WHERE NOT EXISTS (SELECT 1 FROM bookings b WHERE b.unit_id = u.id
+               AND b.status IN ('PENDING', 'PAID') AND b.start_date < ? AND b.end_date > ?)
+            ORDER BY u.id OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY
+            """;
+    private static final String ANTI_JOIN_COUNT_SQL = """
+            SELECT COUNT(u.id) FROM units u
+            WHERE NOT EXISTS (SELECT 1 FROM bookings b WHERE b.unit_id = u.id
+               AND b.status IN ('PENDING', 'PAID') AND b.start_date < ? AND b.end_date > ?)
+            """;
+
+    private static final Logger log = LoggerFactory.getLogger(UnitSearchBenchmarkTest.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update("""
+                INSERT INTO app_users (username, email, password_hash, first_name, last_name, created_at)
+                VALUES ('benchmark', 'benchmark@example.com', '?#1', 'Bench', 'Mark', now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO units (number_of_rooms, accommodation_type, floor, base_cost, total_cost, description)
+                SELECT 1 + n % 4, 'FLAT', n % 10, 100, 115, 'Benchmark unit ' || n
+                FROM generate_series(1, ?) AS n
+                """, UNITS);
+        // Back-to-back two-day stays per unit, every fifth one cancelled, centred on the search window
+        jdbcTemplate.update("""
+                INSERT INTO bookings (unit_id, user_id, start_date, end_date, total_price, status, created_at)
+                SELECT u.id, (SELECT MIN(id) FROM app_users),
+                       TIMESTAMP '2030-01-01' + ((k - ? / 2) * 2 + u.id % 2) * INTERVAL '1 day',
+                       TIMESTAMP '2030-01-01' + ((k - ? / 2) * 2 + u.id % 2 + 2) * INTERVAL '1 day',
+                       230, CASE WHEN k % 5 = 0 THEN 'CANCELLED' ELSE 'PAID' END, now()
+                FROM units u CROSS JOIN generate_series(0, ? - 1) AS k
+                """, BOOKINGS_PER_UNIT, BOOKINGS_PER_UNIT, BOOKINGS_PER_UNIT);
+        jdbcTemplate.execute("ANALYZE units");
+        jdbcTemplate.execute("ANALYZE bookings");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM units");
+        jdbcTemplate.update("DELETE FROM app_users");
+    }
+
+    @Test
+    void searchByDates_NotExistsShouldBeFasterThanLeftJoinDistinct() {
+        // Given
+        ZoneId zone = ZoneId.systemDefault();
+        Object[] params = {
+                SEARCH_END.atStartOfDay(zone).toLocalDateTime(),
+                SEARCH_START.atStartOfDay(zone).toLocalDateTime()
+        };
+        UnitFilter filter = UnitFilter.builder().startDate(SEARCH_START).endDate(SEARCH_END).build();
+        Page<UnitEntity> repositoryPage = unitRepository.findByCriteriaUsingCriteriaApi(
+                filter, PageRequest.of(0, 20, Sort.by("id")));
+        assertEquals(repositoryPage.map(UnitEntity::getId).getContent(),
+                jdbcTemplate.queryForList(ANTI_JOIN_PAGE_SQL.replace("u.*", "u.id"), Long.class, params));
+        assertEquals(repositoryPage.getTotalElements(),
+                jdbcTemplate.queryForObject(ANTI_JOIN_COUNT_SQL, Long.class, params));
+
+        // When
+        double legacyMillis = measure(() -> search(LEGACY_PAGE_SQL, LEGACY_COUNT_SQL, params));
+        double antiJoinMillis = measure(() -> search(ANTI_JOIN_PAGE_SQL, ANTI_JOIN_COUNT_SQL, params));
+
+        log.info("Unit search over {} units x {} bookings: LEFT JOIN + DISTINCT {} ms, NOT EXISTS {} ms",
+                UNITS, BOOKINGS_PER_UNIT, "%.1f".formatted(legacyMillis), "%.1f".formatted(antiJoinMillis));
+
+        // Then
+        assertTrue(antiJoinMillis < legacyMillis);
+    }
+
+    private long search(String pageSql, String countSql, Object[] params) {
+        List<?> rows = jdbcTemplate.queryForList(pageSql, params);
+        return rows.size() + jdbcTemplate.queryForObject(countSql, Long.class, params);
+    }
+
+    private static double measure(Supplier<?> search) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            search.get();
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            search.get();
+        }
+        return (System.nanoTime() - startedAt) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+}
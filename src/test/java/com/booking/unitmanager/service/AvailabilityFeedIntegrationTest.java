@@ -0,0 +1,228 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.dao.UserRepository;
+import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.UnitCreateDTO;
+import com.booking.unitmanager.model.dto.UnitReadDTO;
+import com.booking.unitmanager.model.dto.UnitUpdateDTO;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@AutoConfigureMockMvc
+class AvailabilityFeedIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<MvcResult> feeds = new ArrayList<>();
+    private UnitEntity testUnit;
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = createTestUser();
+        testUnit = createTestUnit();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Completing the async request ends the subscription, as a client disconnect would
+        feeds.forEach(feed -> feed.getRequest().getAsyncContext().complete());
+        feeds.clear();
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void subscribe_ShouldReceiveLatestBookingStateOfSubscribedUnitOnly() throws Exception {
+        // Given
+        UnitEntity otherUnit = createTestUnit();
+        MvcResult feed = subscribe(get("/api/v1/units/events").param("unitIds", testUnit.getId().toString()));
+
+        // When
+        bookingService.createBooking(getBookingCreateDTO(otherUnit, 1));
+        BookingReadDTO booking = bookingService.createBooking(getBookingCreateDTO(testUnit, 1));
+        bookingService.cancelBooking(booking.getId());
+
+        // Then
+        String content = awaitContent(feed, "event:BOOKING_CANCELLED");
+        assertTrue(content.contains("\"bookingId\":" + booking.getId()));
+        assertFalse(content.contains("\"unitId\":" + otherUnit.getId() + ","));
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedEvents() throws Exception {
+        // Given
+        MvcResult feed = subscribe(get("/api/v1/units/events"));
+        UnitReadDTO unit = unitService.createUnit(getUnitCreateDTO());
+        long createdEventId = eventId(awaitContent(feed, "event:UNIT_CREATED"), "UNIT_CREATED");
+
+        unitService.updateUnit(unit.getId(), getUnitUpdateDTO());
+        awaitContent(feed, "event:UNIT_UPDATED");
+
+        // When
+        MvcResult resumed = subscribe(get("/api/v1/units/events")
+                .header("Last-Event-ID", String.valueOf(createdEventId)));
+
+        // Then
+        String content = awaitContent(resumed, "event:UNIT_UPDATED");
+        assertFalse(content.contains("event:UNIT_CREATED"));
+        assertFalse(content.contains("event:reset"));
+    }
+
+    @Test
+    void importUnits_ShouldPublishOneEventPerChunk() throws Exception {
+        // Given
+        MvcResult feed = subscribe(get("/api/v1/units/events"));
+        String body = """
+                {"numberOfRooms": 1, "accommodationType": "FLAT", "floor": 1, "baseCost": 100.00}
+                {"numberOfRooms": 2, "accommodationType": "HOME", "floor": 2, "baseCost": 200.00}
+                {"numberOfRooms": 3, "accommodationType": "APARTMENTS", "floor": 3, "baseCost": 300.00}
+                """;
+
+        // When
+        unitService.importUnits(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        // unit.import.chunk.size=2 in tests, so the three units arrive as two chunks
+        String content = awaitContent(feed, "\"lastUnitId\":" + unitRepository.findAll().stream()
+                .mapToLong(UnitEntity::getId).max().orElseThrow());
+        assertEquals(2, Pattern.compile("event:UNITS_IMPORTED").matcher(content).results().count());
+        assertFalse(content.contains("event:UNIT_CREATED"));
+    }
+
+    @Test
+    void subscribe_WithUnknownLastEventId_ShouldStartWithReset() throws Exception {
+        // When
+        MvcResult feed = subscribe(get("/api/v1/units/events").header("Last-Event-ID", "1"));
+
+        // Then
+        awaitContent(feed, "event:reset");
+    }
+
+    private MvcResult subscribe(MockHttpServletRequestBuilder feedRequest) throws Exception {
+        MvcResult feed = mockMvc.perform(feedRequest.accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        feeds.add(feed);
+        return feed;
+    }
+
+    private static String awaitContent(MvcResult feed, String expected) throws Exception {
+        Instant giveUpAt = Instant.now().plusSeconds(5);
+        String content = feed.getResponse().getContentAsString();
+        while (!content.contains(expected) && Instant.now().isBefore(giveUpAt)) {
+            Thread.sleep(20);
+            content = feed.getResponse().getContentAsString();
+        }
+        String received = content;
+        assertTrue(received.contains(expected), () -> "Expected " + expected + " in feed:\n" + received);
+        return received;
+    }
+
+    private static long eventId(String content, String type) {
+        Matcher matcher = Pattern.compile("id:(\\d+)\\nevent:" + type).matcher(content);
+        assertTrue(matcher.find(), () -> "No " + type + " event in feed:\n" + content);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private BookingCreateDTO getBookingCreateDTO(UnitEntity unit, int startInDays) {
+        Instant startDate = Instant.now().plus(startInDays, ChronoUnit.DAYS);
+        BookingCreateDTO bookingCreateDTO = new BookingCreateDTO();
+        bookingCreateDTO.setUnitId(unit.getId());
+        bookingCreateDTO.setUserId(testUser.getId());
+        bookingCreateDTO.setStartDate(startDate);
+        bookingCreateDTO.setEndDate(startDate.plus(2, ChronoUnit.DAYS));
+        return bookingCreateDTO;
+    }
+
+    private static UnitCreateDTO getUnitCreateDTO() {
+        UnitCreateDTO unitCreateDTO = new UnitCreateDTO();
+        unitCreateDTO.setNumberOfRooms(2);
+        unitCreateDTO.setAccommodationType(AccommodationType.FLAT);
+        unitCreateDTO.setFloor(3);
+        unitCreateDTO.setBaseCost(new BigDecimal("100.00"));
+        unitCreateDTO.setDescription("Feed unit");
+        return unitCreateDTO;
+    }
+
+    private static UnitUpdateDTO getUnitUpdateDTO() {
+        UnitUpdateDTO unitUpdateDTO = new UnitUpdateDTO();
+        unitUpdateDTO.setNumberOfRooms(3);
+        unitUpdateDTO.setAccommodationType(AccommodationType.FLAT);
+        unitUpdateDTO.setFloor(3);
+        unitUpdateDTO.setBaseCost(new BigDecimal("120.00"));
+        unitUpdateDTO.setDescription("Feed unit, renovated");
+        return unitUpdateDTO;
+    }
+
+    private UnitEntity createTestUnit() {
+        UnitEntity unit = new UnitEntity();
+        unit.setDescription("Test Description");
+        unit.setAccommodationType(AccommodationType.HOME);
+        unit.setFloor(1);
+        unit.setNumberOfRooms(2);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("150.00"));
+        return unitRepository.save(unit);
+    }
+
+    private UserEntity createTestUser() {
+        UserEntity user = new UserEntity();
+        user.setUsername("feeduser");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setPasswordHash("?#1");
+        user.setEmail("feed@example.com");
+        return userRepository.save(user);
+    }
+}
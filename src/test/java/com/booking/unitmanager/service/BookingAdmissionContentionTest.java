@@ -0,0 +1,170 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.dao.UserRepository;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires parallel POST /api/v1/bookings at a handful of hot units and checks that
+ * no unit ends up double booked.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingAdmissionContentionTest extends AbstractIntegrationTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int CLIENTS = 64;
+    private static final int HOT_UNITS = 5;
+
+    private static final String DOUBLE_BOOKINGS_SQL = """
+            SELECT COUNT(*)
+            FROM bookings a
+            JOIN bookings b ON a.unit_id = b.unit_id AND a.id < b.id
+            WHERE a.status IN ('PENDING', 'CONFIRMED', 'PAID')
+              AND b.status IN ('PENDING', 'CONFIRMED', 'PAID')
+              AND a.start_date < b.end_date
+              AND a.end_date > b.start_date
+            """;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> hotUnitIds = new ArrayList<>();
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+
+        userId = createTestUser().getId();
+        hotUnitIds.clear();
+        for (int i = 0; i < HOT_UNITS; i++) {
+            hotUnitIds.add(createTestUnit(i).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createBooking_UnderContention_ShouldNeverDoubleBook() throws Exception {
+        // Given
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        Instant base = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+
+        // When
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(clients.submit(() -> {
+                    int status = postRandomBooking(httpClient, base);
+                    if (status == 201) {
+                        created.incrementAndGet();
+                    } else if (status == 400) {
+                        rejected.incrementAndGet();
+                    } else {
+                        unexpected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        Long doubleBookings = jdbcTemplate.queryForObject(DOUBLE_BOOKINGS_SQL, Long.class);
+
+        // Then
+        assertEquals(0L, doubleBookings);
+        assertEquals(0, unexpected.get());
+        assertEquals(REQUESTS, created.get() + rejected.get());
+        assertTrue(created.get() > 0);
+        assertEquals(created.get(), bookingRepository.count());
+    }
+
+    private int postRandomBooking(HttpClient httpClient, Instant base) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long unitId = hotUnitIds.get(random.nextInt(hotUnitIds.size()));
+        Instant startDate = base.plus(random.nextInt(30), ChronoUnit.DAYS);
+        Instant endDate = startDate.plus(1 + random.nextInt(5), ChronoUnit.DAYS);
+        String body = """
+                {"unitId": %d, "userId": %d, "startDate": "%s", "endDate": "%s"}
+                """.formatted(unitId, userId, startDate, endDate);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/bookings"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private UnitEntity createTestUnit(int seed) {
+        UnitEntity testUnit = new UnitEntity();
+        testUnit.setDescription("Hot unit " + seed);
+        testUnit.setAccommodationType(AccommodationType.FLAT);
+        testUnit.setFloor(seed);
+        testUnit.setNumberOfRooms(2);
+        testUnit.setBaseCost(new BigDecimal("100.00"));
+        testUnit.setTotalCost(new BigDecimal("115.00"));
+        return unitRepository.save(testUnit);
+    }
+
+    private UserEntity createTestUser() {
+        UserEntity testUser = new UserEntity();
+        testUser.setUsername("testuser");
+        testUser.setFirstName("Test");
+        testUser.setLastName("User");
+        testUser.setPasswordHash("?#1");
+        testUser.setEmail("test@example.com");
+        return userRepository.save(testUser);
+    }
+}
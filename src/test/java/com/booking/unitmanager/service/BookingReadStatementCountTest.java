@@ -0,0 +1,161 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.dao.UserRepository;
+import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.entity.BookingEntity;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.BookingStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements behind each booking listing endpoint, and checks that
+ * listings are read as projections: no booking, unit or user entity may be hydrated.
+ */
+class BookingReadStatementCountTest extends AbstractIntegrationTest {
+
+    private static final int BOOKINGS = 3;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UnitEntity testUnit;
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = createTestUser();
+        testUnit = createTestUnit();
+        Instant start = Instant.now().plus(1, ChronoUnit.DAYS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            createTestBooking(start.plus(i * 2L, ChronoUnit.DAYS));
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByUserId_Page_ShouldIssuePageAndCountStatementsOnly() {
+        // When
+        Page<BookingReadDTO> result = bookingService.findByUserId(testUser.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(BOOKINGS, result.getTotalElements());
+        assertEquals(testUnit.getId(), result.getContent().getFirst().getUnitId());
+        assertStatements(2);
+    }
+
+    @Test
+    void findByUnitId_Page_ShouldIssuePageAndCountStatementsOnly() {
+        // When
+        Page<BookingReadDTO> result = bookingService.findByUnitId(testUnit.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(BOOKINGS, result.getTotalElements());
+        assertEquals(testUser.getId(), result.getContent().getFirst().getUserId());
+        assertStatements(2);
+    }
+
+    @Test
+    void findByUserId_Cursor_ShouldIssueSingleStatement() {
+        // When
+        CursorSlice<BookingReadDTO> result = bookingService.findByUserId(testUser.getId(), "", PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(2, result.content().size());
+        assertStatements(1);
+    }
+
+    @Test
+    void findByUnitId_Cursor_ShouldIssueSingleStatement() {
+        // When
+        CursorSlice<BookingReadDTO> result = bookingService.findByUnitId(testUnit.getId(), "", PageRequest.of(0, BOOKINGS));
+
+        // Then
+        assertEquals(BOOKINGS, result.content().size());
+        assertStatements(1);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements");
+        assertEquals(0, statistics.getEntityLoadCount(), "Hydrated entities");
+        assertEquals(0, statistics.getEntityFetchCount(), "Lazily fetched entities");
+    }
+
+    private void createTestBooking(Instant startDate) {
+        BookingEntity booking = new BookingEntity();
+        booking.setUnit(testUnit);
+        booking.setUser(testUser);
+        booking.setStartDate(startDate);
+        booking.setEndDate(startDate.plus(1, ChronoUnit.DAYS));
+        booking.setStatus(BookingStatus.PAID);
+        booking.setTotalPrice(new BigDecimal("200.00"));
+        bookingRepository.save(booking);
+    }
+
+    private UserEntity createTestUser() {
+        UserEntity user = new UserEntity();
+        user.setUsername("statementcount");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setPasswordHash("?#1");
+        user.setEmail("statementcount@example.com");
+        return userRepository.save(user);
+    }
+
+    private UnitEntity createTestUnit() {
+        UnitEntity unit = new UnitEntity();
+        unit.setDescription("Statement count unit");
+        unit.setAccommodationType(AccommodationType.FLAT);
+        unit.setFloor(1);
+        unit.setNumberOfRooms(2);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("115.00"));
+        return unitRepository.save(unit);
+    }
+}
@@ -4,24 +4,44 @@ import com.booking.unitmanager.dao.BookingRepository;
 import com.booking.unitmanager.dao.UnitRepository;
 import com.booking.unitmanager.dao.UserRepository;
 import com.booking.unitmanager.exception.EntityNotFoundException;
+import com.booking.unitmanager.exception.ExportLimitExceededException;
+import com.booking.unitmanager.exception.InvalidDateRangeException;
 import com.booking.unitmanager.exception.UnitIsNotAvailableException;
+import com.booking.unitmanager.model.dto.BookingBatchResult;
 import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingExportFilter;
 import com.booking.unitmanager.model.dto.BookingReadDTO;
 import com.booking.unitmanager.model.entity.BookingEntity;
 import com.booking.unitmanager.model.entity.UnitEntity;
 import com.booking.unitmanager.model.entity.UserEntity;
 import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.BatchMode;
 import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.model.enums.ExportFormat;
+import com.booking.unitmanager.service.impl.BookingExpiryQueue;
+import com.booking.unitmanager.service.impl.UnitAvailabilityIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,6 +59,21 @@ class BookingServiceIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UnitAvailabilityIndex unitAvailabilityIndex;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private BookingExpiryQueue bookingExpiryQueue;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private UnitEntity testUnit;
     private UserEntity testUser;
 
@@ -92,6 +127,7 @@ class BookingServiceIntegrationTest extends AbstractIntegrationTest {
         existingBooking.setStatus(BookingStatus.PAID);
         existingBooking.setTotalPrice(new BigDecimal("200.00"));
         bookingRepository.save(existingBooking);
+        unitAvailabilityIndex.rebuild();
 
         // When/Then
         BookingCreateDTO bookingCreateDTO = getBookingCreateDTO();
@@ -100,6 +136,115 @@ class BookingServiceIntegrationTest extends AbstractIntegrationTest {
         });
     }
 
+    @Test
+    void createBooking_ShouldPriceFromUnitTotalCostInSingleStatement() {
+        // Given
+        unitService.getUnit(testUnit.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // When
+        BookingReadDTO result;
+        try {
+            result = bookingService.createBooking(getBookingCreateDTO());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // Then
+        assertEquals(0, new BigDecimal("300.00").compareTo(result.getTotalPrice()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        BookingEntity saved = bookingRepository.findById(result.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("300.00").compareTo(saved.getTotalPrice()));
+        assertEquals(BookingStatus.PENDING, saved.getStatus());
+    }
+
+    @Test
+    void createBooking_WhenOverlapIsMissingFromIndex_ShouldBeRejectedByInsert() {
+        // Given
+        // Saved behind the index's back, as a booking admitted by another node would be
+        saveBooking(Instant.now().plus(1, ChronoUnit.DAYS), BookingStatus.PAID);
+        BookingCreateDTO bookingCreateDTO = getBookingCreateDTO();
+
+        // When/Then
+        assertThrows(UnitIsNotAvailableException.class, () -> bookingService.createBooking(bookingCreateDTO));
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void createBooking_WithNonExistingUnit_ShouldThrowException() {
+        // Given
+        BookingCreateDTO bookingCreateDTO = getBookingCreateDTO();
+        bookingCreateDTO.setUnitId(testUnit.getId() + 1000);
+
+        // When/Then
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+                () -> bookingService.createBooking(bookingCreateDTO));
+        assertEquals("Unit not found with id: " + bookingCreateDTO.getUnitId(), ex.getMessage());
+    }
+
+    @Test
+    void createBooking_WithNonExistingUser_ShouldThrowException() {
+        // Given
+        BookingCreateDTO bookingCreateDTO = getBookingCreateDTO();
+        bookingCreateDTO.setUserId(testUser.getId() + 1000);
+
+        // When/Then
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+                () -> bookingService.createBooking(bookingCreateDTO));
+        assertEquals("User not found with id: " + bookingCreateDTO.getUserId(), ex.getMessage());
+        assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    void createBookings_BestEffort_ShouldCreateAcceptedItemsAndReportRejected() {
+        // Given
+        UnitEntity secondUnit = createTestUnit();
+        BookingCreateDTO first = getBookingCreateDTO();
+        BookingCreateDTO second = getBookingCreateDTO();
+        second.setUnitId(secondUnit.getId());
+        BookingCreateDTO overlapping = getBookingCreateDTO();
+        BookingCreateDTO unknownUnit = getBookingCreateDTO();
+        unknownUnit.setUnitId(-1L);
+
+        // When
+        BookingBatchResult result = bookingService.createBookings(
+                List.of(first, second, overlapping, unknownUnit), BatchMode.BEST_EFFORT);
+
+        // Then
+        assertEquals(2, result.created());
+        assertEquals(2, result.rejected());
+        assertNotNull(result.items().get(0).booking());
+        assertNotNull(result.items().get(1).booking());
+        assertNotNull(result.items().get(2).error());
+        assertEquals("Unit not found with id: -1", result.items().get(3).error());
+        assertEquals(2, bookingRepository.count());
+        assertFalse(unitService.isUnitAvailable(testUnit.getId(), first.getStartDate(), first.getEndDate()));
+        assertFalse(unitService.isUnitAvailable(secondUnit.getId(), second.getStartDate(), second.getEndDate()));
+    }
+
+    @Test
+    void createBookings_AllOrNothing_WithRejectedItem_ShouldCreateNothing() {
+        // Given
+        UnitEntity secondUnit = createTestUnit();
+        BookingCreateDTO first = getBookingCreateDTO();
+        first.setUnitId(secondUnit.getId());
+        bookingService.createBooking(getBookingCreateDTO());
+        BookingCreateDTO unavailable = getBookingCreateDTO();
+
+        // When
+        BookingBatchResult result = bookingService.createBookings(
+                List.of(first, unavailable), BatchMode.ALL_OR_NOTHING);
+
+        // Then
+        assertEquals(0, result.created());
+        assertEquals(2, result.rejected());
+        assertEquals("Unit is not available for the selected dates", result.items().get(1).error());
+        assertEquals(1, bookingRepository.count());
+        assertTrue(unitService.isUnitAvailable(secondUnit.getId(), first.getStartDate(), first.getEndDate()));
+    }
+
     @Test
     void getBooking_WithExistingId_ShouldReturnBooking() {
         // Given
@@ -143,6 +288,36 @@ class BookingServiceIntegrationTest extends AbstractIntegrationTest {
         assertEquals(BookingStatus.CANCELLED, updatedEntity.getStatus());
     }
 
+    @Test
+    void createBooking_ShouldMakeUnitUnavailable() {
+        // Given
+        BookingCreateDTO bookingCreateDTO = getBookingCreateDTO();
+
+        // When
+        bookingService.createBooking(bookingCreateDTO);
+
+        // Then
+        assertFalse(unitService.isUnitAvailable(
+                testUnit.getId(), bookingCreateDTO.getStartDate(), bookingCreateDTO.getEndDate()));
+        assertThrows(UnitIsNotAvailableException.class, () -> {
+            bookingService.createBooking(getBookingCreateDTO());
+        });
+    }
+
+    @Test
+    void cancelBooking_ShouldMakeUnitAvailableAgain() {
+        // Given
+        BookingCreateDTO bookingCreateDTO = getBookingCreateDTO();
+        BookingReadDTO createdBooking = bookingService.createBooking(bookingCreateDTO);
+
+        // When
+        bookingService.cancelBooking(createdBooking.getId());
+
+        // Then
+        assertTrue(unitService.isUnitAvailable(
+                testUnit.getId(), bookingCreateDTO.getStartDate(), bookingCreateDTO.getEndDate()));
+    }
+
     @Test
     void findByUserId_ShouldReturnUserBookings() {
         // Given
@@ -211,6 +386,192 @@ class BookingServiceIntegrationTest extends AbstractIntegrationTest {
         assertEquals(BookingStatus.EXPIRED, updatedBooking.getStatus());
     }
 
+    @Test
+    void processExpiredBookings_WithBacklogLargerThanChunk_ShouldExpireAllAndReleaseUnits() {
+        // Given
+        Instant base = Instant.now().plus(1, ChronoUnit.DAYS);
+        int backlog = 5;
+        for (int i = 0; i < backlog; i++) {
+            BookingEntity booking = new BookingEntity();
+            booking.setUnit(testUnit);
+            booking.setUser(testUser);
+            booking.setStartDate(base.plus(i * 2L, ChronoUnit.DAYS));
+            booking.setEndDate(base.plus(i * 2L + 1, ChronoUnit.DAYS));
+            booking.setStatus(BookingStatus.PENDING);
+            booking.setTotalPrice(new BigDecimal("100.00"));
+            booking.setPaymentDeadline(Instant.now().minus(1, ChronoUnit.MINUTES));
+            bookingRepository.save(booking);
+        }
+        unitAvailabilityIndex.rebuild();
+
+        // When
+        int expired = bookingService.processExpiredBookings();
+
+        // Then
+        assertEquals(backlog, expired);
+        assertTrue(bookingRepository.findAll().stream()
+                .allMatch(booking -> booking.getStatus() == BookingStatus.EXPIRED));
+        assertTrue(unitService.isUnitAvailable(testUnit.getId(), base, base.plus(backlog * 2L, ChronoUnit.DAYS)));
+        assertEquals(0, bookingService.processExpiredBookings());
+    }
+
+    @Test
+    void scheduledBooking_ShouldExpireShortlyAfterDeadline() throws InterruptedException {
+        // Given
+        BookingEntity booking = new BookingEntity();
+        booking.setUnit(testUnit);
+        booking.setUser(testUser);
+        booking.setStartDate(Instant.now().plus(1, ChronoUnit.DAYS));
+        booking.setEndDate(Instant.now().plus(2, ChronoUnit.DAYS));
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setTotalPrice(new BigDecimal("100.00"));
+        booking.setPaymentDeadline(Instant.now().plusMillis(300));
+        BookingEntity savedBooking = bookingRepository.save(booking);
+
+        // When
+        bookingExpiryQueue.schedule(savedBooking.getId(), savedBooking.getPaymentDeadline());
+
+        // Then
+        Instant giveUpAt = Instant.now().plusSeconds(5);
+        BookingStatus status = BookingStatus.PENDING;
+        while (status == BookingStatus.PENDING && Instant.now().isBefore(giveUpAt)) {
+            Thread.sleep(50);
+            status = bookingRepository.findById(savedBooking.getId()).orElseThrow().getStatus();
+        }
+        assertEquals(BookingStatus.EXPIRED, status);
+    }
+
+    @Test
+    void cancelBooking_ShouldNotBeExpiredByScheduler() {
+        // Given
+        BookingReadDTO created = bookingService.createBooking(getBookingCreateDTO());
+        int trackedBefore = bookingExpiryQueue.size();
+
+        // When
+        bookingService.cancelBooking(created.getId());
+
+        // Then
+        assertEquals(trackedBefore - 1, bookingExpiryQueue.size());
+    }
+
+    @Test
+    void exportBookings_Ndjson_ShouldStreamFilteredBookingsInIdOrder() throws Exception {
+        // Given
+        Instant base = Instant.now().plus(10, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        List<Long> expectedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expectedIds.add(saveBooking(base.plus(i * 2L, ChronoUnit.DAYS), BookingStatus.PAID).getId());
+        }
+        saveBooking(base.plus(1, ChronoUnit.DAYS), BookingStatus.CANCELLED);
+        saveBooking(base.plus(30, ChronoUnit.DAYS), BookingStatus.PAID);
+        BookingExportFilter filter = BookingExportFilter.builder()
+                .unitId(testUnit.getId())
+                .from(base)
+                .to(base.plus(20, ChronoUnit.DAYS))
+                .statuses(Set.of(BookingStatus.PAID))
+                .build();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingService.exportBookings(filter, ExportFormat.NDJSON).writeTo(out);
+
+        // Then
+        List<Long> exportedIds = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            BookingReadDTO booking = objectMapper.readValue(line, BookingReadDTO.class);
+            assertEquals(testUnit.getId(), booking.getUnitId());
+            assertEquals(BookingStatus.PAID, booking.getStatus());
+            exportedIds.add(booking.getId());
+        }
+        assertEquals(expectedIds, exportedIds);
+    }
+
+    @Test
+    void exportBookings_Csv_ShouldWriteHeaderAndOneRowPerBooking() throws Exception {
+        // Given
+        BookingEntity booking = saveBooking(Instant.now().plus(1, ChronoUnit.DAYS), BookingStatus.PAID);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BookingExportFilter filter = BookingExportFilter.builder().userId(testUser.getId()).build();
+        bookingService.exportBookings(filter, ExportFormat.CSV).writeTo(out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,unitId,userId,startDate,endDate"));
+        String[] columns = lines[1].split(",", -1);
+        assertEquals(10, columns.length);
+        assertEquals(String.valueOf(booking.getId()), columns[0]);
+        assertEquals("PAID", columns[6]);
+        assertEquals("", columns[9]);
+    }
+
+    @Test
+    void exportBookings_WhenClientDisconnects_ShouldStopAndReleaseConnection() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            saveBooking(Instant.now().plus(i * 2L + 1, ChronoUnit.DAYS), BookingStatus.PAID);
+        }
+        BookingExportFilter filter = BookingExportFilter.builder().unitId(testUnit.getId()).build();
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When
+        bookingService.exportBookings(filter, ExportFormat.NDJSON).writeTo(disconnected);
+
+        // Then
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingService.exportBookings(filter, ExportFormat.NDJSON).writeTo(out);
+        assertEquals(5, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void exportBookings_BeyondConcurrencyLimit_ShouldRejectUntilAnExportEnds() throws Exception {
+        // Given
+        BookingExportFilter filter = BookingExportFilter.builder().unitId(testUnit.getId()).build();
+        StreamingResponseBody first = bookingService.exportBookings(filter, ExportFormat.NDJSON);
+        StreamingResponseBody second = bookingService.exportBookings(filter, ExportFormat.CSV);
+
+        // When/Then
+        assertThrows(ExportLimitExceededException.class,
+                () -> bookingService.exportBookings(filter, ExportFormat.NDJSON));
+        first.writeTo(new ByteArrayOutputStream());
+        bookingService.exportBookings(filter, ExportFormat.NDJSON).writeTo(new ByteArrayOutputStream());
+        second.writeTo(new ByteArrayOutputStream());
+    }
+
+    @Test
+    void exportBookings_WithInvalidRequest_ShouldFailBeforeStreaming() {
+        // Given
+        Instant now = Instant.now();
+        BookingExportFilter unknownUnit = BookingExportFilter.builder().unitId(testUnit.getId() + 1000).build();
+        BookingExportFilter invertedRange = BookingExportFilter.builder()
+                .unitId(testUnit.getId()).from(now).to(now.minus(1, ChronoUnit.DAYS))
+                .build();
+
+        // When/Then
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.exportBookings(unknownUnit, ExportFormat.NDJSON));
+        assertThrows(InvalidDateRangeException.class,
+                () -> bookingService.exportBookings(invertedRange, ExportFormat.CSV));
+    }
+
+    private BookingEntity saveBooking(Instant startDate, BookingStatus status) {
+        BookingEntity booking = new BookingEntity();
+        booking.setUnit(testUnit);
+        booking.setUser(testUser);
+        booking.setStartDate(startDate);
+        booking.setEndDate(startDate.plus(1, ChronoUnit.DAYS));
+        booking.setStatus(status);
+        booking.setTotalPrice(new BigDecimal("150.00"));
+        return bookingRepository.save(booking);
+    }
+
     private BookingCreateDTO getBookingCreateDTO() {
         Instant now = Instant.now();
         Instant startDate = now.plus(1, ChronoUnit.DAYS);
@@ -0,0 +1,231 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.PaymentRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.dao.UserRepository;
+import com.booking.unitmanager.exception.IllegalStateEntityException;
+import com.booking.unitmanager.model.dto.PaymentCreateDTO;
+import com.booking.unitmanager.model.entity.BookingEntity;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.service.impl.UnitAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires thousands of interleaved pay, cancel and expire operations at the same bookings and checks that
+ * every booking ends in exactly one terminal state that agrees with the operations that succeeded,
+ * with one version bump per successful transition.
+ */
+class BookingTransitionStressTest extends AbstractIntegrationTest {
+
+    private static final int BOOKINGS = 1000;
+    private static final int UNITS = 20;
+    private static final int THREADS = 32;
+    private static final Duration DEADLINE_SPREAD = Duration.ofMillis(1500);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UnitAvailabilityIndex unitAvailabilityIndex;
+
+    private final Map<Long, AtomicInteger> payments = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> cancellations = new ConcurrentHashMap<>();
+    private final Queue<Throwable> unexpectedFailures = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void interleavedTransitions_ShouldLeaveEveryBookingInOneConsistentTerminalState() throws Exception {
+        // Given
+        Random random = new Random(42);
+        Instant firstDeadline = Instant.now().plusMillis(200);
+        List<BookingEntity> bookings = createPendingBookings(firstDeadline, random);
+
+        List<Runnable> operations = new ArrayList<>();
+        for (BookingEntity booking : bookings) {
+            Long id = booking.getId();
+            payments.put(id, new AtomicInteger());
+            cancellations.put(id, new AtomicInteger());
+            operations.add(() -> pay(booking));
+            operations.add(() -> pay(booking));
+            operations.add(() -> bookingService.expireBookings(List.of(id)));
+            if (random.nextBoolean()) {
+                operations.add(() -> cancel(id));
+            }
+        }
+        Collections.shuffle(operations, random);
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (Runnable operation : operations) {
+                executor.submit(() -> {
+                    try {
+                        operation.run();
+                    } catch (Throwable ex) {
+                        unexpectedFailures.add(ex);
+                    }
+                });
+            }
+        }
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), firstDeadline.plus(DEADLINE_SPREAD)).toMillis()));
+        bookingService.processExpiredBookings();
+
+        // Then
+        assertTrue(unexpectedFailures.isEmpty(), () -> "Unexpected failures: " + unexpectedFailures);
+        assertTrue(operations.size() >= 3 * BOOKINGS);
+
+        Map<Long, Long> paymentsByBooking = paymentRepository.findAll().stream()
+                .collect(Collectors.groupingBy(payment -> payment.getBooking().getId(), Collectors.counting()));
+        Map<Long, BookingEntity> finalBookings = bookingRepository.findAllById(payments.keySet()).stream()
+                .collect(Collectors.toMap(BookingEntity::getId, Function.identity()));
+
+        for (Long id : payments.keySet()) {
+            BookingEntity booking = finalBookings.get(id);
+            int paid = payments.get(id).get();
+            int cancelled = cancellations.get(id).get();
+            String context = "Booking " + id + " ended " + booking.getStatus()
+                    + " after " + paid + " payments and " + cancelled + " cancellations";
+
+            assertTrue(paid <= 1 && cancelled <= 1, context);
+            assertEquals(paid, paymentsByBooking.getOrDefault(id, 0L).intValue(), context);
+            switch (booking.getStatus()) {
+                case PAID -> assertTrue(paid == 1 && cancelled == 0, context);
+                case CANCELLED -> assertEquals(1, cancelled, context);
+                case EXPIRED -> assertTrue(paid == 0 && cancelled == 0, context);
+                default -> throw new AssertionError(context);
+            }
+            long expired = booking.getStatus() == BookingStatus.EXPIRED ? 1 : 0;
+            assertEquals(paid + cancelled + expired, booking.getVersion(), context);
+        }
+    }
+
+    private void pay(BookingEntity booking) {
+        PaymentCreateDTO paymentCreateDTO = new PaymentCreateDTO();
+        paymentCreateDTO.setBookingId(booking.getId());
+        paymentCreateDTO.setAmount(booking.getTotalPrice());
+        try {
+            paymentService.createPayment(paymentCreateDTO);
+            payments.get(booking.getId()).incrementAndGet();
+        } catch (IllegalStateEntityException | OptimisticLockingFailureException ex) {
+            // Rejected, or still conflicting after the bounded retries: the booking must be left untouched
+        }
+    }
+
+    private void cancel(Long id) {
+        try {
+            bookingService.cancelBooking(id);
+            cancellations.get(id).incrementAndGet();
+        } catch (IllegalStateEntityException | OptimisticLockingFailureException ex) {
+            // Already expired or cancelled, or still conflicting after the bounded retries
+        }
+    }
+
+    /**
+     * Deadlines are spread over {@link #DEADLINE_SPREAD}, so payments and expiries meet at different
+     * moments of the run.
+     */
+    private List<BookingEntity> createPendingBookings(Instant firstDeadline, Random random) {
+        UserEntity user = createTestUser();
+        List<UnitEntity> units = new ArrayList<>();
+        for (int i = 0; i < UNITS; i++) {
+            units.add(createTestUnit());
+        }
+
+        Instant base = Instant.now().plus(1, ChronoUnit.DAYS);
+        List<BookingEntity> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Instant startDate = base.plus((i / UNITS) * 2L, ChronoUnit.DAYS);
+            BookingEntity booking = new BookingEntity();
+            booking.setUnit(units.get(i % UNITS));
+            booking.setUser(user);
+            booking.setStartDate(startDate);
+            booking.setEndDate(startDate.plus(1, ChronoUnit.DAYS));
+            booking.setStatus(BookingStatus.PENDING);
+            booking.setTotalPrice(new BigDecimal("150.00"));
+            booking.setPaymentDeadline(firstDeadline.plusMillis(random.nextLong(DEADLINE_SPREAD.toMillis())));
+            bookings.add(booking);
+        }
+        List<BookingEntity> saved = bookingRepository.saveAll(bookings);
+        unitAvailabilityIndex.rebuild();
+        return saved;
+    }
+
+    private UnitEntity createTestUnit() {
+        UnitEntity unit = new UnitEntity();
+        unit.setDescription("Stress unit");
+        unit.setAccommodationType(AccommodationType.FLAT);
+        unit.setFloor(1);
+        unit.setNumberOfRooms(2);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("150.00"));
+        return unitRepository.save(unit);
+    }
+
+    private UserEntity createTestUser() {
+        UserEntity user = new UserEntity();
+        user.setUsername("stressuser");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setPasswordHash("?#1");
+        user.setEmail("stress@example.com");
+        return userRepository.save(user);
+    }
+}
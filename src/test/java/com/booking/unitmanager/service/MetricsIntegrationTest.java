@@ -0,0 +1,169 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.dao.UserRepository;
+import com.booking.unitmanager.exception.IllegalStateEntityException;
+import com.booking.unitmanager.exception.UnitIsNotAvailableException;
+import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MetricsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UnitEntity testUnit;
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = createTestUser();
+        testUnit = createTestUnit();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createBooking_ShouldBeTimedPerMethod() {
+        // Given
+        long before = serviceCalls("createBooking");
+
+        // When
+        bookingService.createBooking(getBookingCreateDTO());
+
+        // Then
+        assertEquals(before + 1, serviceCalls("createBooking"));
+    }
+
+    @Test
+    void createBooking_WhenUnitTaken_ShouldCountRejection() {
+        // Given
+        bookingService.createBooking(getBookingCreateDTO());
+        Counter rejections = meterRegistry.counter("booking.availability.rejections", "detected.by", "index");
+        double before = rejections.count();
+
+        // When
+        assertThrows(UnitIsNotAvailableException.class, () -> bookingService.createBooking(getBookingCreateDTO()));
+
+        // Then
+        assertEquals(before + 1, rejections.count());
+    }
+
+    @Test
+    void cancelBooking_WhenAlreadyCancelled_ShouldCountIllegalTransition() {
+        // Given
+        BookingReadDTO booking = bookingService.createBooking(getBookingCreateDTO());
+        bookingService.cancelBooking(booking.getId());
+        Counter transitions = meterRegistry.counter("booking.illegal.transitions",
+                "operation", "cancel", "status", "CANCELLED");
+        double before = transitions.count();
+
+        // When
+        assertThrows(IllegalStateEntityException.class, () -> bookingService.cancelBooking(booking.getId()));
+
+        // Then
+        assertEquals(before + 1, transitions.count());
+    }
+
+    @Test
+    void prometheus_ShouldExposeServiceHistogramsAndPoolAndHibernateMetrics() throws Exception {
+        // Given
+        bookingService.createBooking(getBookingCreateDTO());
+
+        // When & Then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("booking_service_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+
+    private long serviceCalls(String method) {
+        Timer timer = meterRegistry.find("booking.service").tag("method", method).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private BookingCreateDTO getBookingCreateDTO() {
+        Instant startDate = Instant.now().plus(1, ChronoUnit.DAYS);
+        BookingCreateDTO bookingCreateDTO = new BookingCreateDTO();
+        bookingCreateDTO.setUnitId(testUnit.getId());
+        bookingCreateDTO.setUserId(testUser.getId());
+        bookingCreateDTO.setStartDate(startDate);
+        bookingCreateDTO.setEndDate(startDate.plus(2, ChronoUnit.DAYS));
+        return bookingCreateDTO;
+    }
+
+    private UnitEntity createTestUnit() {
+        UnitEntity unit = new UnitEntity();
+        unit.setDescription("Metrics unit");
+        unit.setAccommodationType(AccommodationType.FLAT);
+        unit.setFloor(1);
+        unit.setNumberOfRooms(2);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("115.00"));
+        return unitRepository.save(unit);
+    }
+
+    private UserEntity createTestUser() {
+        UserEntity user = new UserEntity();
+        user.setUsername("metricsuser");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setPasswordHash("?#1");
+        user.setEmail("metrics@example.com");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,254 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.config.TestContainersInitializer;
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.dao.UserRepository;
+import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.BookingReadDTO;
+import com.booking.unitmanager.model.entity.BookingEntity;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.BookingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a primary and a streaming replica; {@code pg_is_in_recovery()} tells which one served a statement.
+ */
+@SpringBootTest(properties = {
+        "datasource.replica.max.lag.seconds=3",
+        "datasource.replica.check.millis=100"
+})
+@Testcontainers
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    static {
+        TestContainersInitializer.initializeReplicationContainers();
+    }
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        TestContainersInitializer.registerReplicationContainerProperties(registry);
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        replicaJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                TestContainersInitializer.getReplicaJdbcUrl(), "test", "test"));
+
+        // The replica only serves reads once a lag check has passed
+        awaitReadOnlyServedByReplica(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaJdbcTemplate.execute("SELECT pg_wal_replay_resume()");
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldBeServedByReplica() {
+        // When
+        boolean servedByReplica = readOnly.execute(status -> inRecovery());
+
+        // Then
+        assertTrue(servedByReplica);
+    }
+
+    @Test
+    void readWriteTransaction_ShouldBeServedByPrimary() {
+        // When
+        boolean servedByReplica = readWrite.execute(status -> inRecovery());
+
+        // Then
+        assertFalse(servedByReplica);
+    }
+
+    @Test
+    void readOnlyCallsInsideWriteTransaction_ShouldKeepReadingPrimary() {
+        readWrite.executeWithoutResult(status -> {
+            // Given
+            UnitEntity unit = createTestUnit();
+            createTestBooking(unit, createTestUser());
+
+            // When
+            Page<BookingReadDTO> bookings = bookingService.findByUnitId(unit.getId(), PageRequest.of(0, 10));
+            boolean servedByReplica = readOnly.execute(nested -> inRecovery());
+
+            // Then
+            assertEquals(1, bookings.getTotalElements(), "Uncommitted booking must be visible");
+            assertFalse(servedByReplica);
+        });
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaLagsBehind_ShouldFallBackToPrimaryUntilCaughtUp() throws Exception {
+        // Given
+        replicaJdbcTemplate.execute("SELECT pg_wal_replay_pause()");
+        UnitEntity unit = createTestUnit();
+
+        // When
+        awaitReadOnlyServedByReplica(false);
+        boolean visibleWhileLagging = readOnly.execute(
+                status -> entityManager.find(UnitEntity.class, unit.getId()) != null);
+        replicaJdbcTemplate.execute("SELECT pg_wal_replay_resume()");
+
+        // Then
+        assertTrue(visibleWhileLagging, "The primary must serve the read while the replica lags");
+        awaitReadOnlyServedByReplica(true);
+        assertNotNull(readOnly.execute(status -> entityManager.find(UnitEntity.class, unit.getId())));
+    }
+
+    @Test
+    void bookingReads_RightAfterWrite_ShouldSeeTheWrite() {
+        // Given
+        UnitEntity unit = createTestUnit();
+        UserEntity user = createTestUser();
+        replicaJdbcTemplate.execute("SELECT pg_wal_replay_pause()");
+        BookingReadDTO created = bookingService.createBooking(getBookingCreateDTO(unit, user));
+
+        // When
+        BookingEntity onReplica = readOnly.execute(
+                status -> entityManager.find(BookingEntity.class, created.getId()));
+        BookingReadDTO booking = bookingService.getBooking(created.getId());
+        Page<BookingReadDTO> unitBookings = bookingService.findByUnitId(unit.getId(), PageRequest.of(0, 10));
+        Page<BookingReadDTO> userBookings = bookingService.findByUserId(user.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertNull(onReplica, "The replica must still be in rotation and behind the write");
+        assertEquals(BookingStatus.PENDING, booking.getStatus());
+        assertEquals(1, unitBookings.getTotalElements());
+        assertEquals(1, userBookings.getTotalElements());
+    }
+
+    @Test
+    void bookingReads_WithoutRecentWrite_ShouldBeServedByReplica() {
+        // Given
+        UnitEntity unit = createTestUnit();
+
+        // When
+        boolean servedByReplica = readOnly.execute(status -> {
+            bookingService.findByUnitId(unit.getId(), PageRequest.of(0, 10));
+            return inRecovery();
+        });
+
+        // Then
+        assertTrue(servedByReplica);
+    }
+
+    private boolean inRecovery() {
+        return (Boolean) entityManager.createNativeQuery("SELECT pg_is_in_recovery()").getSingleResult();
+    }
+
+    private void awaitReadOnlyServedByReplica(boolean expected) throws InterruptedException {
+        Instant giveUpAt = Instant.now().plusSeconds(10);
+        boolean servedByReplica = readOnly.execute(status -> inRecovery());
+        while (servedByReplica != expected && Instant.now().isBefore(giveUpAt)) {
+            Thread.sleep(50);
+            servedByReplica = readOnly.execute(status -> inRecovery());
+        }
+        assertEquals(expected, servedByReplica, "Read-only transaction served by replica");
+    }
+
+    private static BookingCreateDTO getBookingCreateDTO(UnitEntity unit, UserEntity user) {
+        Instant startDate = Instant.now().plus(1, ChronoUnit.DAYS);
+        BookingCreateDTO bookingCreateDTO = new BookingCreateDTO();
+        bookingCreateDTO.setUnitId(unit.getId());
+        bookingCreateDTO.setUserId(user.getId());
+        bookingCreateDTO.setStartDate(startDate);
+        bookingCreateDTO.setEndDate(startDate.plus(2, ChronoUnit.DAYS));
+        return bookingCreateDTO;
+    }
+
+    private BookingEntity createTestBooking(UnitEntity unit, UserEntity user) {
+        Instant startDate = Instant.now().plus(1, ChronoUnit.DAYS);
+        BookingEntity booking = new BookingEntity();
+        booking.setUnit(unit);
+        booking.setUser(user);
+        booking.setStartDate(startDate);
+        booking.setEndDate(startDate.plus(2, ChronoUnit.DAYS));
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setTotalPrice(new BigDecimal("300.00"));
+        return bookingRepository.save(booking);
+    }
+
+    private UnitEntity createTestUnit() {
+        UnitEntity unit = new UnitEntity();
+        unit.setDescription("Replica unit");
+        unit.setAccommodationType(AccommodationType.FLAT);
+        unit.setFloor(1);
+        unit.setNumberOfRooms(2);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("150.00"));
+        return unitRepository.save(unit);
+    }
+
+    private UserEntity createTestUser() {
+        UserEntity user = new UserEntity();
+        user.setUsername("replicauser");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setPasswordHash("?#1");
+        user.setEmail("replica@example.com");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,95 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.model.projection.BookingInterval;
+import com.booking.unitmanager.service.impl.UnitAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Booking changes whose after-commit callbacks land while a rebuild is reading the database
+ * must survive the swap to the reloaded snapshot.
+ */
+class UnitAvailabilityIndexRebuildTest {
+
+    private static final Long UNIT_ID = 1L;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final UnitRepository unitRepository = mock(UnitRepository.class);
+
+    private UnitAvailabilityIndex index;
+    private Instant startDate;
+    private Instant endDate;
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findActiveBookingIntervals()).thenReturn(List.of());
+        when(unitRepository.count()).thenReturn(1L);
+
+        index = new UnitAvailabilityIndex(bookingRepository, unitRepository);
+        ReflectionTestUtils.setField(index, "horizonDays", 30);
+        index.initializeIndex();
+
+        startDate = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        endDate = startDate.plus(2, ChronoUnit.DAYS);
+    }
+
+    @Test
+    void rebuild_WhenBookingAddedDuringRead_ShouldKeepBooking() {
+        // Given
+        when(bookingRepository.findActiveBookingIntervals()).thenAnswer(invocation -> {
+            index.addBooking(10L, UNIT_ID, startDate, endDate);
+            return List.of();
+        });
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertFalse(index.isAvailable(UNIT_ID, startDate, endDate));
+    }
+
+    @Test
+    void rebuild_WhenBookingRemovedDuringRead_ShouldDropBooking() {
+        // Given
+        index.addBooking(10L, UNIT_ID, startDate, endDate);
+        when(bookingRepository.findActiveBookingIntervals()).thenAnswer(invocation -> {
+            List<BookingInterval> snapshot = List.of(new BookingInterval(10L, UNIT_ID, startDate, endDate));
+            index.removeBooking(10L, UNIT_ID);
+            return snapshot;
+        });
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertTrue(index.isAvailable(UNIT_ID, startDate, endDate));
+    }
+
+    @Test
+    void rebuild_WhenAddedBookingIsAlsoInSnapshot_ShouldKeepItOnce() {
+        // Given
+        when(bookingRepository.findActiveBookingIntervals()).thenAnswer(invocation -> {
+            index.addBooking(10L, UNIT_ID, startDate, endDate);
+            return List.of(new BookingInterval(10L, UNIT_ID, startDate, endDate));
+        });
+        index.rebuild();
+
+        // When
+        index.removeBooking(10L, UNIT_ID);
+
+        // Then
+        assertTrue(index.isAvailable(UNIT_ID, startDate, endDate));
+    }
+}
@@ -9,6 +9,7 @@ import com.booking.unitmanager.model.entity.UserEntity;
 import com.booking.unitmanager.model.enums.AccommodationType;
 import com.booking.unitmanager.model.enums.BookingStatus;
 import com.booking.unitmanager.service.impl.UnitCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +21,9 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -40,6 +44,9 @@ class UnitCacheServiceIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private RedisTemplate<String, Long> redisTemplate;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final String AVAILABLE_UNITS_KEY = "available_units";
 
     private List<UnitEntity> testUnits;
@@ -78,7 +85,7 @@ class UnitCacheServiceIntegrationTest extends AbstractIntegrationTest {
 
         // Verify the value was cached in Redis
         Number cachedValue = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
-        assertEquals(5, cachedValue);
+        assertEquals(5L, cachedValue);
     }
 
     @Test
@@ -95,7 +102,7 @@ class UnitCacheServiceIntegrationTest extends AbstractIntegrationTest {
 
         // Verify the value was updated in Redis
         Number cachedValue = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
-        assertEquals(4, cachedValue);
+        assertEquals(4L, cachedValue);
     }
 
     @Test
@@ -112,7 +119,55 @@ class UnitCacheServiceIntegrationTest extends AbstractIntegrationTest {
         assertEquals(5L, result);
 
         Number cachedValue = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
-        assertEquals(5, cachedValue);
+        assertEquals(5L, cachedValue);
+    }
+
+    @Test
+    void adjustAvailableUnits_Concurrently_ShouldNotLoseUpdates() throws Exception {
+        // Given
+        unitCacheService.getAvailableUnitsCount(); // Initialize cache
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> unitCacheService.incrementAvailableUnits()));
+                futures.add(executor.submit(() -> unitCacheService.adjustAvailableUnits(2)));
+                futures.add(executor.submit(() -> unitCacheService.decrementAvailableUnits()));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // Then
+        assertEquals(405L, unitCacheService.getAvailableUnitsCount());
+    }
+
+    @Test
+    void getAvailableUnitsCount_WithConcurrentMisses_ShouldSeedOnce() throws Exception {
+        // When
+        List<Future<Long>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 50; i++) {
+                futures.add(executor.submit(() -> unitCacheService.getAvailableUnitsCount()));
+            }
+        }
+
+        // Then
+        for (Future<Long> future : futures) {
+            assertEquals(5L, future.get());
+        }
+        assertEquals(5L, redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY));
+    }
+
+    @Test
+    void decrementAvailableUnits_WithMissingKey_ShouldSeedFromDatabase() {
+        // When
+        unitCacheService.decrementAvailableUnits();
+
+        // Then
+        assertEquals(4L, redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY));
     }
 
     @Test
@@ -154,7 +209,20 @@ class UnitCacheServiceIntegrationTest extends AbstractIntegrationTest {
         assertEquals(5L, result);
 
         Number cachedValue = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
-        assertEquals(5, cachedValue);
+        assertEquals(5L, cachedValue);
+    }
+
+    @Test
+    void rebuildCache_ShouldPublishCounterAndDriftGauges() {
+        // Given
+        redisTemplate.opsForValue().set(AVAILABLE_UNITS_KEY, 10L);
+
+        // When
+        unitCacheService.rebuildCache();
+
+        // Then
+        assertEquals(5.0, meterRegistry.get("unit.cache.available.units").gauge().value());
+        assertEquals(5.0, meterRegistry.get("unit.cache.available.units.drift").gauge().value());
     }
 
     @Test
@@ -167,7 +235,7 @@ class UnitCacheServiceIntegrationTest extends AbstractIntegrationTest {
 
         // Then
         Number cachedValue = redisTemplate.opsForValue().get(AVAILABLE_UNITS_KEY);
-        assertEquals(5, cachedValue);
+        assertEquals(5L, cachedValue);
     }
 
     private UserEntity createTestUser() {
@@ -0,0 +1,150 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.exception.EntityNotFoundException;
+import com.booking.unitmanager.model.dto.UnitReadDTO;
+import com.booking.unitmanager.model.dto.UnitUpdateDTO;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.service.impl.UnitDetailsCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitDetailsCacheIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UnitDetailsCache unitDetailsCache;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        unitRepository.deleteAll();
+    }
+
+    @Test
+    void getUnit_ShouldServeCachedCopyUntilUpdated() {
+        // Given
+        UnitEntity unit = unitRepository.save(createTestUnit("Original description"));
+        unitService.getUnit(unit.getId());
+
+        unit.setDescription("Changed behind the cache");
+        unitRepository.save(unit);
+
+        // When
+        UnitReadDTO cached = unitService.getUnit(unit.getId());
+        unitService.updateUnit(unit.getId(), getUnitUpdateDTO("Updated description"));
+        UnitReadDTO afterUpdate = unitService.getUnit(unit.getId());
+
+        // Then
+        assertEquals("Original description", cached.getDescription());
+        assertEquals("Updated description", afterUpdate.getDescription());
+    }
+
+    @Test
+    void getUnit_AfterDelete_ShouldThrowException() {
+        // Given
+        UnitEntity unit = unitRepository.save(createTestUnit("To be deleted"));
+        unitService.getUnit(unit.getId());
+
+        // When
+        unitService.deleteUnit(unit.getId());
+
+        // Then
+        assertThrows(EntityNotFoundException.class, () -> unitService.getUnit(unit.getId()));
+    }
+
+    @Test
+    void remoteInvalidation_ShouldDropNearCopy() throws InterruptedException {
+        // Given
+        UnitEntity unit = unitRepository.save(createTestUnit("Shared unit"));
+        unitService.getUnit(unit.getId());
+        assertTrue(unitDetailsCache.getIfPresent(unit.getId()).isPresent());
+
+        // When
+        stringRedisTemplate.convertAndSend("unit-invalidation", unit.getId().toString());
+
+        // Then
+        Instant giveUpAt = Instant.now().plusSeconds(5);
+        while (unitDetailsCache.getIfPresent(unit.getId()).isPresent() && Instant.now().isBefore(giveUpAt)) {
+            Thread.sleep(20);
+        }
+        assertTrue(unitDetailsCache.getIfPresent(unit.getId()).isEmpty());
+    }
+
+    @Test
+    void get_WhenAnotherNodeInvalidatesDuringLoad_ShouldNotCacheLoadedCopy() {
+        // Given
+        UnitEntity unit = unitRepository.save(createTestUnit("Loaded before the update"));
+        UnitReadDTO stale = unitService.getUnit(unit.getId());
+        unitDetailsCache.evict(unit.getId());
+
+        // When
+        unitDetailsCache.get(unit.getId(), () -> {
+            // another node's update bumps the version without touching this node's near cache
+            stringRedisTemplate.opsForValue().increment("unit-version:" + unit.getId());
+            return stale;
+        });
+
+        // Then
+        assertFalse(Boolean.TRUE.equals(stringRedisTemplate.hasKey("unit:" + unit.getId())));
+        assertTrue(unitDetailsCache.getIfPresent(unit.getId()).isEmpty());
+    }
+
+    @Test
+    void getUnit_ShouldRecordMetricsPerTier() {
+        // Given
+        UnitEntity unit = unitRepository.save(createTestUnit("Metered unit"));
+        double redisMissesBefore = meterRegistry.get("cache.gets")
+                .tags("cache", "units.redis", "result", "miss").counter().count();
+
+        // When
+        unitService.getUnit(unit.getId());
+        unitService.getUnit(unit.getId());
+
+        // Then
+        assertEquals(redisMissesBefore + 1, meterRegistry.get("cache.gets")
+                .tags("cache", "units.redis", "result", "miss").counter().count());
+        assertTrue(meterRegistry.get("cache.gets")
+                .tags("cache", "units.near", "result", "hit").functionCounter().count() >= 1);
+    }
+
+    private UnitEntity createTestUnit(String description) {
+        UnitEntity unit = new UnitEntity();
+        unit.setNumberOfRooms(2);
+        unit.setAccommodationType(AccommodationType.APARTMENTS);
+        unit.setFloor(3);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("115.00"));
+        unit.setDescription(description);
+        return unit;
+    }
+
+    private UnitUpdateDTO getUnitUpdateDTO(String description) {
+        UnitUpdateDTO unitUpdateDTO = new UnitUpdateDTO();
+        unitUpdateDTO.setNumberOfRooms(2);
+        unitUpdateDTO.setAccommodationType(AccommodationType.APARTMENTS);
+        unitUpdateDTO.setFloor(3);
+        unitUpdateDTO.setBaseCost(new BigDecimal("100.00"));
+        unitUpdateDTO.setDescription(description);
+        return unitUpdateDTO;
+    }
+}
@@ -0,0 +1,92 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.model.dto.UnitReadDTO;
+import com.booking.unitmanager.service.impl.UnitDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * An invalidation broadcast while a unit is being read from Redis must keep the copy read
+ * out of the near cache, since it may predate the update.
+ */
+class UnitDetailsCacheRaceTest {
+
+    private static final Long UNIT_ID = 1L;
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, UnitReadDTO> unitRedisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, UnitReadDTO> unitValues = mock(ValueOperations.class);
+    private final RedisMessageListenerContainer listenerContainer = mock(RedisMessageListenerContainer.class);
+
+    private UnitDetailsCache cache;
+    private MessageListener invalidationListener;
+
+    @BeforeEach
+    void setUp() {
+        when(unitRedisTemplate.opsForValue()).thenReturn(unitValues);
+        cache = new UnitDetailsCache(unitRedisTemplate, mock(StringRedisTemplate.class), listenerContainer,
+                new SimpleMeterRegistry(), 100, 10, 60);
+
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+        invalidationListener = listener.getValue();
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringRedisRead_ShouldNotKeepNearCopy() {
+        // Given
+        UnitReadDTO stale = new UnitReadDTO();
+        stale.setId(UNIT_ID);
+        when(unitValues.get("unit:" + UNIT_ID)).thenAnswer(invocation -> {
+            // another node updates the unit and broadcasts after this read got the old copy
+            invalidationListener.onMessage(new DefaultMessage(
+                    "unit-invalidation".getBytes(StandardCharsets.UTF_8),
+                    UNIT_ID.toString().getBytes(StandardCharsets.UTF_8)), null);
+            return stale;
+        });
+
+        // When
+        UnitReadDTO served = cache.get(UNIT_ID, () -> {
+            throw new AssertionError("Redis hit must not load");
+        });
+
+        // Then
+        assertEquals(stale, served);
+        assertTrue(cache.getIfPresent(UNIT_ID).isEmpty());
+    }
+
+    @Test
+    void get_WhenRedisReadIsUndisturbed_ShouldKeepNearCopy() {
+        // Given
+        UnitReadDTO shared = new UnitReadDTO();
+        shared.setId(UNIT_ID);
+        when(unitValues.get("unit:" + UNIT_ID)).thenReturn(shared);
+
+        // When
+        cache.get(UNIT_ID, () -> {
+            throw new AssertionError("Redis hit must not load");
+        });
+
+        // Then
+        assertTrue(cache.getIfPresent(UNIT_ID).isPresent());
+    }
+}
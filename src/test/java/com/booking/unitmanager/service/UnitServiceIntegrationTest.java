@@ -4,25 +4,45 @@ import com.booking.unitmanager.dao.BookingRepository;
 import com.booking.unitmanager.dao.UnitRepository;
 import com.booking.unitmanager.dao.UserRepository;
 import com.booking.unitmanager.exception.EntityNotFoundException;
+import com.booking.unitmanager.exception.InvalidCursorException;
+import com.booking.unitmanager.exception.InvalidDateRangeException;
+import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.dto.CursorSlice;
+import com.booking.unitmanager.model.dto.UnitCalendarDTO;
 import com.booking.unitmanager.model.dto.UnitCreateDTO;
 import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.dto.UnitImportResult;
 import com.booking.unitmanager.model.dto.UnitReadDTO;
 import com.booking.unitmanager.model.dto.UnitUpdateDTO;
 import com.booking.unitmanager.model.entity.BookingEntity;
 import com.booking.unitmanager.model.entity.UnitEntity;
 import com.booking.unitmanager.model.entity.UserEntity;
 import com.booking.unitmanager.model.enums.AccommodationType;
+import com.booking.unitmanager.model.enums.BatchMode;
 import com.booking.unitmanager.model.enums.BookingStatus;
+import com.booking.unitmanager.model.enums.CountMode;
+import com.booking.unitmanager.service.impl.UnitAvailabilityIndex;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,6 +60,12 @@ class UnitServiceIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private UnitAvailabilityIndex unitAvailabilityIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
     private UserEntity testUser;
 
     @BeforeEach
@@ -136,6 +162,52 @@ class UnitServiceIntegrationTest extends AbstractIntegrationTest {
         assertFalse(unitRepository.existsById(createdUnit.getId()));
     }
 
+    @Test
+    void importUnits_WithNdjson_ShouldInsertValidUnitsInChunks() {
+        // Given
+        String body = """
+                {"numberOfRooms": 1, "accommodationType": "FLAT", "floor": 1, "baseCost": 100.00}
+                {"numberOfRooms": 0, "accommodationType": "FLAT", "floor": 1, "baseCost": 100.00}
+                {"numberOfRooms": 2, "accommodationType": "CASTLE", "floor": 1, "baseCost": 100.00}
+                {"numberOfRooms": 2, "accommodationType": "HOME", "floor": 2, "baseCost": 200.00}
+                {"numberOfRooms": 3, "accommodationType": "APARTMENTS", "floor": 3, "baseCost": 300.00}
+                """;
+        Long availableBefore = unitService.getAvailableUnitsCount();
+
+        // When
+        UnitImportResult result = unitService.importUnits(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertEquals(3, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of(1L, 2L), result.errors().stream().map(UnitImportResult.ItemError::index).toList());
+        assertEquals(3, unitRepository.count());
+        assertEquals(availableBefore + 3, unitService.getAvailableUnitsCount());
+        assertTrue(unitRepository.findAll().stream()
+                .allMatch(unit -> unit.getTotalCost().compareTo(unit.getBaseCost().multiply(new BigDecimal("1.15"))) == 0));
+    }
+
+    @Test
+    void importUnits_WithJsonArray_ShouldInsertAllUnits() {
+        // Given
+        String body = """
+                [
+                  {"numberOfRooms": 1, "accommodationType": "FLAT", "floor": 1, "baseCost": 100.00},
+                  {"numberOfRooms": 2, "accommodationType": "HOME", "floor": 2, "baseCost": 200.00}
+                ]
+                """;
+
+        // When
+        UnitImportResult result = unitService.importUnits(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertEquals(2, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals(2, unitRepository.count());
+    }
+
     @Test
     void findAll_ShouldReturnAllUnits() {
         // Given
@@ -183,6 +255,173 @@ class UnitServiceIntegrationTest extends AbstractIntegrationTest {
         assertEquals(AccommodationType.APARTMENTS, result.getContent().get(0).getAccommodationType());
     }
 
+    @Test
+    void findByFilter_WithDates_ShouldExcludeUnitsWithAnyOverlappingBooking() {
+        // Given
+        UnitEntity bookedUnit = unitRepository.save(createTestUnit());
+        UnitEntity freeUnit = unitRepository.save(createTestUnit());
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate startDate = LocalDate.now(zone).plusDays(10);
+        LocalDate endDate = startDate.plusDays(3);
+        saveBooking(bookedUnit, startDate.minusDays(8), startDate.minusDays(6), BookingStatus.PAID, zone);
+        saveBooking(bookedUnit, startDate.plusDays(1), startDate.plusDays(2), BookingStatus.PAID, zone);
+        saveBooking(freeUnit, startDate.plusDays(1), startDate.plusDays(2), BookingStatus.CANCELLED, zone);
+
+        UnitFilter filter = UnitFilter.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        // When
+        Page<UnitReadDTO> result = unitService.findByCriteria(filter, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertEquals(freeUnit.getId(), result.getContent().get(0).getId());
+    }
+
+    @Test
+    void findByCriteria_WithCountModes_ShouldReportTotalsAccordingly() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            unitRepository.save(createTestUnit());
+        }
+        PageRequest firstPage = PageRequest.of(0, 2);
+        UnitFilter filter = UnitFilter.builder().minCost(new BigDecimal("114.99")).build();
+
+        // When
+        Slice<UnitReadDTO> withoutCount = unitService.findByCriteria(filter, firstPage, CountMode.NONE);
+        Slice<UnitReadDTO> estimated = unitService.findByCriteria(filter, firstPage, CountMode.ESTIMATED);
+        unitRepository.save(createTestUnit());
+        Slice<UnitReadDTO> cachedEstimate = unitService.findByCriteria(filter, firstPage, CountMode.ESTIMATED);
+        Slice<UnitReadDTO> exact = unitService.findByCriteria(filter, firstPage, CountMode.EXACT);
+
+        // Then
+        assertFalse(withoutCount instanceof Page);
+        assertEquals(2, withoutCount.getNumberOfElements());
+        assertTrue(withoutCount.hasNext());
+        assertEquals(3, ((Page<UnitReadDTO>) estimated).getTotalElements());
+        assertEquals(3, ((Page<UnitReadDTO>) cachedEstimate).getTotalElements());
+        assertEquals(4, ((Page<UnitReadDTO>) exact).getTotalElements());
+    }
+
+    @Test
+    void findByCriteria_RepeatedSearch_ShouldServeCachedPageUntilMatchingBooking() {
+        // Given
+        UnitEntity bookedUnit = createTestUnit();
+        bookedUnit.setFloor(7);
+        unitRepository.save(bookedUnit);
+
+        LocalDate startDate = LocalDate.now(ZoneId.systemDefault()).plusDays(20);
+        UnitFilter filter = UnitFilter.builder().floor(7).startDate(startDate).endDate(startDate.plusDays(2)).build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        // When
+        Slice<UnitReadDTO> first = unitService.findByCriteria(filter, pageRequest, CountMode.NONE);
+        UnitEntity hiddenUnit = createTestUnit();
+        hiddenUnit.setFloor(7);
+        unitRepository.save(hiddenUnit);
+        Slice<UnitReadDTO> cached = unitService.findByCriteria(filter, pageRequest, CountMode.NONE);
+        bookingService.createBooking(getBookingCreateDTO(bookedUnit.getId(), filter));
+        Slice<UnitReadDTO> afterBooking = unitService.findByCriteria(filter, pageRequest, CountMode.NONE);
+
+        // Then
+        assertEquals(List.of(bookedUnit.getId()), first.map(UnitReadDTO::getId).getContent());
+        assertEquals(List.of(bookedUnit.getId()), cached.map(UnitReadDTO::getId).getContent());
+        assertEquals(List.of(hiddenUnit.getId()), afterBooking.map(UnitReadDTO::getId).getContent());
+    }
+
+    @Test
+    void findByCriteria_BatchBooking_ShouldDropCachedPageOfBookedUnits() {
+        // Given
+        UnitEntity bookedUnit = createTestUnit();
+        bookedUnit.setFloor(6);
+        unitRepository.save(bookedUnit);
+
+        LocalDate startDate = LocalDate.now(ZoneId.systemDefault()).plusDays(20);
+        UnitFilter filter = UnitFilter.builder().floor(6).startDate(startDate).endDate(startDate.plusDays(2)).build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        // When
+        unitService.findByCriteria(filter, pageRequest, CountMode.NONE);
+        UnitEntity hiddenUnit = createTestUnit();
+        hiddenUnit.setFloor(6);
+        unitRepository.save(hiddenUnit);
+        bookingService.createBookings(List.of(getBookingCreateDTO(bookedUnit.getId(), filter)),
+                BatchMode.ALL_OR_NOTHING);
+        Slice<UnitReadDTO> afterBooking = unitService.findByCriteria(filter, pageRequest, CountMode.NONE);
+
+        // Then
+        assertEquals(List.of(hiddenUnit.getId()), afterBooking.map(UnitReadDTO::getId).getContent());
+    }
+
+    @Test
+    void findByCriteria_BookingOfNonMatchingUnit_ShouldKeepCachedPage() {
+        // Given
+        UnitEntity matchingUnit = createTestUnit();
+        matchingUnit.setFloor(8);
+        unitRepository.save(matchingUnit);
+        UnitEntity otherUnit = createTestUnit();
+        otherUnit.setFloor(9);
+        unitRepository.save(otherUnit);
+
+        LocalDate startDate = LocalDate.now(ZoneId.systemDefault()).plusDays(20);
+        UnitFilter filter = UnitFilter.builder().floor(8).startDate(startDate).endDate(startDate.plusDays(2)).build();
+        UnitFilter otherFilter = UnitFilter.builder().floor(9)
+                .startDate(startDate).endDate(startDate.plusDays(2)).build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        // When
+        // a cached page listing the other unit tells the cache it is not on floor 8
+        unitService.findByCriteria(otherFilter, pageRequest, CountMode.NONE);
+        unitService.findByCriteria(filter, pageRequest, CountMode.EXACT);
+        UnitEntity hiddenUnit = createTestUnit();
+        hiddenUnit.setFloor(8);
+        unitRepository.save(hiddenUnit);
+        bookingService.createBooking(getBookingCreateDTO(otherUnit.getId(), filter));
+        Slice<UnitReadDTO> result = unitService.findByCriteria(filter, pageRequest, CountMode.EXACT);
+
+        // Then
+        assertEquals(List.of(matchingUnit.getId()), result.map(UnitReadDTO::getId).getContent());
+        assertEquals(1, ((Page<UnitReadDTO>) result).getTotalElements());
+    }
+
+    @Test
+    void findByCriteria_WithCursor_ShouldWalkAllPagesInSortOrder() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            UnitEntity unit = createTestUnit();
+            unit.setTotalCost(new BigDecimal(i % 2 == 0 ? "100.00" : "200.00"));
+            unitRepository.save(unit);
+        }
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "totalCost"));
+
+        // When
+        List<UnitReadDTO> visited = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorSlice<UnitReadDTO> slice = unitService.findByCriteria(UnitFilter.empty(), cursor, pageRequest);
+            visited.addAll(slice.content());
+            cursor = slice.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(3, pages);
+        assertEquals(5, visited.size());
+        assertEquals(5, visited.stream().map(UnitReadDTO::getId).distinct().count());
+        assertEquals(0, new BigDecimal("200.00").compareTo(visited.get(0).getTotalCost()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(visited.get(4).getTotalCost()));
+    }
+
+    @Test
+    void findByCriteria_WithMalformedCursor_ShouldThrowException() {
+        assertThrows(InvalidCursorException.class,
+                () -> unitService.findByCriteria(UnitFilter.empty(), "not-a-cursor", PageRequest.of(0, 10)));
+    }
+
     @Test
     void isUnitAvailable_WithNoOverlappingBookings_ShouldReturnTrue() {
         // Given
@@ -223,6 +462,7 @@ class UnitServiceIntegrationTest extends AbstractIntegrationTest {
         booking.setStatus(BookingStatus.PAID);
         booking.setTotalPrice(new BigDecimal("200.00"));
         bookingRepository.save(booking);
+        unitAvailabilityIndex.rebuild();
 
         // When
         boolean result = unitService.isUnitAvailable(unit.getId(), startDate, endDate);
@@ -231,6 +471,120 @@ class UnitServiceIntegrationTest extends AbstractIntegrationTest {
         assertFalse(result);
     }
 
+    @Test
+    void getAvailableUnitsCountByDay_ShouldTrackBookingsPerDay() {
+        // Given
+        UnitEntity bookedUnit = unitRepository.save(createTestUnit());
+        unitRepository.save(createTestUnit());
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.now(zone).plusDays(1);
+        BookingEntity booking = new BookingEntity();
+        booking.setUnit(bookedUnit);
+        booking.setUser(testUser);
+        booking.setStartDate(firstDay.atTime(14, 0).atZone(zone).toInstant());
+        booking.setEndDate(firstDay.plusDays(2).atTime(11, 0).atZone(zone).toInstant());
+        booking.setStatus(BookingStatus.PAID);
+        booking.setTotalPrice(new BigDecimal("200.00"));
+        bookingRepository.save(booking);
+        unitAvailabilityIndex.rebuild();
+
+        // When
+        Map<LocalDate, Long> before = unitService.getAvailableUnitsCountByDay(firstDay, 4);
+        unitAvailabilityIndex.removeBooking(booking.getId(), bookedUnit.getId());
+        Map<LocalDate, Long> after = unitService.getAvailableUnitsCountByDay(firstDay, 4);
+
+        // Then
+        assertEquals(List.of(1L, 1L, 1L, 2L), List.copyOf(before.values()));
+        assertEquals(firstDay, before.keySet().iterator().next());
+        assertEquals(List.of(2L, 2L, 2L, 2L), List.copyOf(after.values()));
+    }
+
+    @Test
+    void findAvailableUnitIds_ShouldReturnUnitsFreeForWholePeriod() {
+        // Given
+        UnitEntity bookedUnit = unitRepository.save(createTestUnit());
+        UnitEntity freeUnit = unitRepository.save(createTestUnit());
+        UnitEntity cancelledUnit = unitRepository.save(createTestUnit());
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate from = LocalDate.now(zone).plusDays(5);
+        saveBooking(bookedUnit, from.plusDays(2), from.plusDays(4), BookingStatus.PAID, zone);
+        saveBooking(freeUnit, from.plusDays(3), from.plusDays(5), BookingStatus.PAID, zone);
+        saveBooking(cancelledUnit, from, from.plusDays(3), BookingStatus.CANCELLED, zone);
+        unitAvailabilityIndex.rebuild();
+
+        // When
+        List<Long> result = unitService.findAvailableUnitIds(
+                List.of(cancelledUnit.getId(), bookedUnit.getId(), freeUnit.getId(), cancelledUnit.getId()),
+                from.atStartOfDay(zone).toInstant(),
+                from.plusDays(3).atStartOfDay(zone).toInstant());
+
+        // Then
+        assertEquals(List.of(cancelledUnit.getId(), freeUnit.getId()), result);
+    }
+
+    @Test
+    void getUnitCalendar_ShouldMarkBookedDaysInBitmap() {
+        // Given
+        UnitEntity unit = unitRepository.save(createTestUnit());
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate from = LocalDate.now(zone).plusDays(5);
+        saveBooking(unit, from.plusDays(1), from.plusDays(3), BookingStatus.PAID, zone);
+        saveBooking(unit, from.plusDays(8), from.plusDays(10), BookingStatus.PENDING, zone);
+        saveBooking(unit, from.plusDays(4), from.plusDays(6), BookingStatus.CANCELLED, zone);
+        unitAvailabilityIndex.rebuild();
+
+        // When
+        UnitCalendarDTO calendar = unitService.getUnitCalendar(unit.getId(), from, from.plusDays(10));
+
+        // Then
+        BitSet occupied = BitSet.valueOf(Base64.getDecoder().decode(calendar.occupiedDays()));
+        assertEquals(2, Base64.getDecoder().decode(calendar.occupiedDays()).length);
+        assertEquals(BitSet.valueOf(new long[]{0b11_0000_0110L}), occupied);
+    }
+
+    @Test
+    void getUnitCalendar_WithTooLongRange_ShouldThrowException() {
+        // Given
+        UnitEntity unit = unitRepository.save(createTestUnit());
+        LocalDate from = LocalDate.now();
+
+        // When/Then
+        assertThrows(InvalidDateRangeException.class,
+                () -> unitService.getUnitCalendar(unit.getId(), from, from.plusYears(2)));
+    }
+
+    private void saveBooking(UnitEntity unit, LocalDate from, LocalDate to, BookingStatus status, ZoneId zone) {
+        BookingEntity booking = new BookingEntity();
+        booking.setUnit(unit);
+        booking.setUser(testUser);
+        booking.setStartDate(from.atStartOfDay(zone).toInstant());
+        booking.setEndDate(to.atStartOfDay(zone).toInstant());
+        booking.setStatus(status);
+        booking.setTotalPrice(new BigDecimal("100.00"));
+        bookingRepository.save(booking);
+    }
+
+    private UnitEntity createTestUnit() {
+        UnitEntity unit = new UnitEntity();
+        unit.setNumberOfRooms(2);
+        unit.setAccommodationType(AccommodationType.APARTMENTS);
+        unit.setFloor(3);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("115.00"));
+        unit.setDescription("Modern apartment with balcony");
+        return unit;
+    }
+
+    private BookingCreateDTO getBookingCreateDTO(Long unitId, UnitFilter filter) {
+        BookingCreateDTO bookingCreateDTO = new BookingCreateDTO();
+        bookingCreateDTO.setUnitId(unitId);
+        bookingCreateDTO.setUserId(testUser.getId());
+        bookingCreateDTO.setStartDate(filter.startInstant());
+        bookingCreateDTO.setEndDate(filter.endInstant());
+        return bookingCreateDTO;
+    }
+
     private UnitCreateDTO getUnitCreateDTO() {
         UnitCreateDTO unitCreateDTO = new UnitCreateDTO();
         unitCreateDTO.setNumberOfRooms(2);
@@ -0,0 +1,178 @@
+package com.booking.unitmanager.service;
+
+import com.booking.unitmanager.dao.BookingRepository;
+import com.booking.unitmanager.dao.UnitRepository;
+import com.booking.unitmanager.dao.UserRepository;
+import com.booking.unitmanager.model.dto.BookingCreateDTO;
+import com.booking.unitmanager.model.entity.UnitEntity;
+import com.booking.unitmanager.model.entity.UserEntity;
+import com.booking.unitmanager.model.enums.AccommodationType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the request paths against carrier pinning: on Java 23 a virtual thread that blocks
+ * inside a {@code synchronized} block holds its carrier, which quietly caps throughput.
+ */
+class VirtualThreadPinningTest extends AbstractIntegrationTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String REQUEST_THREAD_PREFIX = "pinning-request-";
+    private static final String APPLICATION_PACKAGE = "com.booking.unitmanager.";
+
+    /**
+     * Libraries known to block under their own monitor, whose pinning is theirs to fix; matched
+     * against the frame that made the blocking call. None has shown up on these paths so far.
+     */
+    private static final List<String> ALLOWED_LIBRARY_PINNERS = List.of();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+        testUser = createTestUser();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        unitRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void bookingRequests_OnVirtualThreads_ShouldNotPinInApplicationCode() throws Exception {
+        // Given
+        List<UnitEntity> units = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            units.add(unitRepository.save(createTestUnit(i)));
+        }
+        Instant startDate = Instant.now().plus(1, ChronoUnit.DAYS);
+        Instant endDate = startDate.plus(2, ChronoUnit.DAYS);
+        List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+
+        // When
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED_EVENT, pinnedEvents::add);
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(REQUEST_THREAD_PREFIX, 0).factory())) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (UnitEntity unit : units) {
+                    futures.add(executor.submit(() -> {
+                        unitService.getUnit(unit.getId());
+                        unitService.isUnitAvailable(unit.getId(), startDate, endDate);
+                        bookingService.createBooking(getBookingCreateDTO(unit.getId(), startDate, endDate));
+                        return unitService.getAvailableUnitsCount();
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            recording.stop();
+        }
+
+        // Then
+        List<String> pinnedInApplication = pinnedEvents.stream()
+                .filter(VirtualThreadPinningTest::pinnedUnderApplicationCode)
+                .map(event -> event.getStackTrace().getFrames().toString())
+                .toList();
+        assertEquals(List.of(), pinnedInApplication);
+        assertEquals(units.size(), bookingRepository.count());
+    }
+
+    /**
+     * Whether a request thread was pinned with application code anywhere on its stack. The stack
+     * shows where the thread blocked, not who holds the monitor, so a library blocking under a
+     * monitor our code took counts as well; a truncated stack might hide our frames and counts too.
+     */
+    private static boolean pinnedUnderApplicationCode(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || event.getThread() == null
+                || !String.valueOf(event.getThread().getJavaName()).startsWith(REQUEST_THREAD_PREFIX)) {
+            return false;
+        }
+        List<String> types = stackTrace.getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName())
+                .toList();
+        String blockingCaller = types.stream()
+                .filter(type -> !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun."))
+                .findFirst()
+                .orElse("");
+        if (ALLOWED_LIBRARY_PINNERS.stream().anyMatch(blockingCaller::startsWith)) {
+            return false;
+        }
+        return stackTrace.isTruncated() || types.stream().anyMatch(type -> type.startsWith(APPLICATION_PACKAGE));
+    }
+
+    private BookingCreateDTO getBookingCreateDTO(Long unitId, Instant startDate, Instant endDate) {
+        BookingCreateDTO bookingCreateDTO = new BookingCreateDTO();
+        bookingCreateDTO.setUnitId(unitId);
+        bookingCreateDTO.setUserId(testUser.getId());
+        bookingCreateDTO.setStartDate(startDate);
+        bookingCreateDTO.setEndDate(endDate);
+        return bookingCreateDTO;
+    }
+
+    private UnitEntity createTestUnit(int seed) {
+        UnitEntity unit = new UnitEntity();
+        unit.setNumberOfRooms(2);
+        unit.setAccommodationType(AccommodationType.FLAT);
+        unit.setFloor(seed % 10);
+        unit.setBaseCost(new BigDecimal("100.00"));
+        unit.setTotalCost(new BigDecimal("115.00"));
+        unit.setDescription("Pinning test unit " + seed);
+        return unit;
+    }
+
+    private UserEntity createTestUser() {
+        UserEntity user = new UserEntity();
+        user.setUsername("pinning");
+        user.setFirstName("Pinning");
+        user.setLastName("User");
+        user.setPasswordHash("?#1");
+        user.setEmail("pinning@example.com");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,96 @@
+package com.booking.unitmanager.service.impl;
+
+import com.booking.unitmanager.model.dto.UnitFilter;
+import com.booking.unitmanager.model.dto.UnitReadDTO;
+import com.booking.unitmanager.model.enums.CountMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A page computed while another unit changed is still stored; only an invalidation
+ * of the page's own filter discards it. Bookings are matched by the units cached pages list.
+ */
+class UnitSearchResultCacheTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    private final UnitSearchResultCache cache = new UnitSearchResultCache(30, 1_000);
+
+    @Test
+    void put_WhenUnrelatedUnitChangedMeanwhile_ShouldStorePage() {
+        // Given
+        UnitFilter filter = UnitFilter.builder().floor(1).build();
+        long stamp = cache.invalidationStamp();
+        cache.evictForUnit(null, unitOnFloor(2));
+
+        // When
+        cache.put(filter, PAGE, CountMode.NONE, List.of(unitOnFloor(1)), false, null, stamp);
+
+        // Then
+        assertTrue(cache.get(filter, PAGE, CountMode.NONE).isPresent());
+    }
+
+    @Test
+    void put_WhenMatchingUnitChangedMeanwhile_ShouldDiscardPage() {
+        // Given
+        UnitFilter filter = UnitFilter.builder().floor(1).build();
+        long stamp = cache.invalidationStamp();
+        cache.evictForUnit(null, unitOnFloor(1));
+
+        // When
+        cache.put(filter, PAGE, CountMode.NONE, List.of(unitOnFloor(1)), false, null, stamp);
+
+        // Then
+        assertFalse(cache.get(filter, PAGE, CountMode.NONE).isPresent());
+    }
+
+    @Test
+    void evictForBooking_OfListedUnitNotMatchingFilter_ShouldKeepPage() {
+        // Given
+        UnitFilter floorOne = UnitFilter.builder().floor(1).startDate(START).endDate(START.plusDays(2)).build();
+        UnitFilter floorTwo = UnitFilter.builder().floor(2).startDate(START).endDate(START.plusDays(2)).build();
+        cache.put(floorOne, PAGE, CountMode.NONE, List.of(unitOnFloor(1)), false, null, cache.invalidationStamp());
+        cache.put(floorTwo, PAGE, CountMode.NONE, List.of(unitOnFloor(2)), false, null, cache.invalidationStamp());
+
+        // When
+        cache.evictForBooking(2L, floorTwo.startInstant(), floorTwo.endInstant());
+
+        // Then
+        assertTrue(cache.get(floorOne, PAGE, CountMode.NONE).isPresent());
+        assertFalse(cache.get(floorTwo, PAGE, CountMode.NONE).isPresent());
+    }
+
+    @Test
+    void evictForBooking_OfUnlistedUnit_ShouldDropOverlappingDatedPagesOnly() {
+        // Given
+        UnitFilter dated = UnitFilter.builder().floor(1).startDate(START).endDate(START.plusDays(2)).build();
+        UnitFilter later = UnitFilter.builder().floor(1)
+                .startDate(START.plusDays(10)).endDate(START.plusDays(12)).build();
+        UnitFilter undated = UnitFilter.builder().floor(1).build();
+        for (UnitFilter filter : List.of(dated, later, undated)) {
+            cache.put(filter, PAGE, CountMode.NONE, List.of(unitOnFloor(1)), false, null, cache.invalidationStamp());
+        }
+
+        // When
+        cache.evictForBooking(42L, dated.startInstant(), dated.endInstant());
+
+        // Then
+        assertFalse(cache.get(dated, PAGE, CountMode.NONE).isPresent());
+        assertTrue(cache.get(later, PAGE, CountMode.NONE).isPresent());
+        assertTrue(cache.get(undated, PAGE, CountMode.NONE).isPresent());
+    }
+
+    private static UnitReadDTO unitOnFloor(int floor) {
+        UnitReadDTO unit = new UnitReadDTO();
+        unit.setId((long) floor);
+        unit.setFloor(floor);
+        return unit;
+    }
+}